@@ -0,0 +1,53 @@
+package benchmarks;
+
+import IO.MyCompressorOutputStream;
+import IO.MyDecompressorInputStream;
+import algorithms.mazeGenerators.MyMazeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RLE compression and decompression of Maze.toByteArray output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"50", "500", "1000", "5000", "10000"})
+    public int size;
+
+    private byte[] mazeBytes;
+    private byte[] compressedMaze;
+
+    @Setup
+    public void setUp() throws IOException {
+        mazeBytes = new MyMazeGenerator().generate(size, size).toByteArray();
+        compressedMaze = compress();
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        MyCompressorOutputStream compressor = new MyCompressorOutputStream(compressed);
+        compressor.write(mazeBytes);
+        compressor.flush();
+        return compressed.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        byte[] decompressed = new byte[mazeBytes.length];
+        try (MyDecompressorInputStream decompressor = new MyDecompressorInputStream(new ByteArrayInputStream(compressedMaze))) {
+            decompressor.read(decompressed);
+        }
+        return decompressed;
+    }
+}
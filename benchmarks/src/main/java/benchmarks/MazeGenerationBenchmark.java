@@ -0,0 +1,40 @@
+package benchmarks;
+
+import algorithms.mazeGenerators.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to generate one size x size maze.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MazeGenerationBenchmark {
+
+    @Param({"50", "500", "1000", "5000", "10000"})
+    public int size;
+
+    @Param({"MyMazeGenerator", "SimpleMazeGenerator"})
+    public String generator;
+
+    private IMazeGenerator mazeGenerator;
+
+    @Setup
+    public void setUp() {
+        mazeGenerator = switch (generator) {
+            case "SimpleMazeGenerator" -> new SimpleMazeGenerator();
+            case "EmptyMazeGenerator" -> new EmptyMazeGenerator();
+            default -> new MyMazeGenerator();
+        };
+    }
+
+    @Benchmark
+    public Maze generate() {
+        return mazeGenerator.generate(size, size);
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import Model.ModelEvent;
+import Model.MyModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full MyModel.generateMaze round trip: request to the generating server, generation,
+ * compression, transfer and decompression, until the MazeGenerated event is published.
+ * MyModel starts its servers on the fixed ports, so nothing else may be using them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoundTripBenchmark {
+
+    @Param({"50", "500", "1000", "5000", "10000"})
+    public int size;
+
+    private MyModel model;
+    private final BlockingQueue<ModelEvent> notifications = new LinkedBlockingQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = new MyModel();
+        model.getEvents().subscribe(ModelEvent.class, notifications::add);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        model.stopServers();
+    }
+
+    @Benchmark
+    public Object generateMaze() throws InterruptedException {
+        model.generateMaze(size, size);
+        ModelEvent notification;
+        do {
+            notification = notifications.take();
+        } while (!(notification instanceof ModelEvent.MazeGenerated) && !(notification instanceof ModelEvent.Failed));
+        if (notification instanceof ModelEvent.Failed failed) {
+            throw new IllegalStateException("Maze generation failed: " + failed.message());
+        }
+        return model.getMaze();
+    }
+}
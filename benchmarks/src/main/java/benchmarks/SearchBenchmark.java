@@ -0,0 +1,49 @@
+package benchmarks;
+
+import algorithms.mazeGenerators.MyMazeGenerator;
+import algorithms.search.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to solve one generated maze with each ISearchingAlgorithm. The object-based
+ * searchers (BestFirstSearch, BreadthFirstSearch, DepthFirstSearch) get very slow on
+ * the largest sizes; use -p to pick a subset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"50", "500", "1000", "5000", "10000"})
+    public int size;
+
+    @Param({"BestFirstSearch", "BreadthFirstSearch", "DepthFirstSearch",
+            "IndexedBestFirstSearch", "IndexedBreadthFirstSearch", "BidirectionalSearch", "ParallelBreadthFirstSearch"})
+    public String algorithm;
+
+    private ISearchable searchable;
+
+    @Setup
+    public void setUp() {
+        searchable = new SearchableIndexedMaze(new MyMazeGenerator().generate(size, size));
+    }
+
+    @Benchmark
+    public Solution solve() {
+        ISearchingAlgorithm searcher = switch (algorithm) {
+            case "BreadthFirstSearch" -> new BreadthFirstSearch();
+            case "DepthFirstSearch" -> new DepthFirstSearch();
+            case "IndexedBestFirstSearch" -> new IndexedBestFirstSearch();
+            case "IndexedBreadthFirstSearch" -> new IndexedBreadthFirstSearch();
+            case "BidirectionalSearch" -> new BidirectionalSearch();
+            case "ParallelBreadthFirstSearch" -> new ParallelBreadthFirstSearch(0); // Always take the parallel path
+            default -> new BestFirstSearch();
+        };
+        return searcher.solve(searchable);
+    }
+}
@@ -0,0 +1,196 @@
+package Client;
+
+import IO.MazeProtocol;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A long-lived client channel to a server running ServerStrategyMultiplexed.
+ * Many requests share one socket; each one gets a request id and its response
+ * is matched back to the caller by that id. The socket is opened lazily and
+ * reopened on the next request if it breaks.
+ * Cancelling a request's future tells the server to stop working on it, with a
+ * MazeProtocol CANCEL_REQUEST frame under the same id.
+ */
+public class MultiplexedClient implements Closeable {
+
+    private final InetAddress serverIP;
+    private final int serverPort;
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+
+    private Socket socket;
+    private DataOutputStream out;
+
+    public MultiplexedClient(InetAddress serverIP, int serverPort) {
+        this.serverIP = serverIP;
+        this.serverPort = serverPort;
+    }
+
+    /**
+     * Runs a regular IClientStrategy over this channel. Whatever the strategy writes
+     * is sent as one request when it starts reading the response.
+     * @param strategy The client strategy to run.
+     */
+    public void communicateWithServer(IClientStrategy strategy) {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        strategy.clientStrategy(new ResponseInputStream(request), request);
+    }
+
+    /**
+     * Sends one request and waits for its response.
+     * @param request The request payload.
+     * @return The response payload.
+     * @throws IOException If the channel fails or the request is interrupted; an interrupt also cancels it.
+     */
+    public byte[] request(byte[] request) throws IOException {
+        CompletableFuture<byte[]> response = send(request);
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.cancel(true);
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        }
+    }
+
+    /**
+     * Sends one request without waiting.
+     * @param request The request payload.
+     * @return A future completed with the response payload; cancelling it cancels the request on the server.
+     */
+    public CompletableFuture<byte[]> send(byte[] request) {
+        int requestId = nextRequestId.incrementAndGet();
+        CompletableFuture<byte[]> response = new CompletableFuture<>();
+        pending.put(requestId, response);
+        try {
+            synchronized (this) {
+                writeFrame(connect(), requestId, request);
+            }
+        } catch (IOException e) {
+            pending.remove(requestId);
+            disconnect(e);
+            response.completeExceptionally(e);
+            return response;
+        }
+        response.whenComplete((result, failure) -> {
+            // Still pending means no response came, so the server may still be working on it
+            if (failure instanceof CancellationException && pending.remove(requestId) != null) {
+                cancel(requestId);
+            }
+        });
+        return response;
+    }
+
+    // Best effort: a broken channel has already dropped the request on the server
+    private synchronized void cancel(int requestId) {
+        if (socket == null || socket.isClosed()) {
+            return;
+        }
+        try {
+            writeFrame(out, requestId, MazeProtocol.cancelRequest());
+        } catch (IOException e) {
+            disconnect(e);
+        }
+    }
+
+    private static void writeFrame(DataOutputStream channel, int requestId, byte[] payload) throws IOException {
+        channel.writeInt(requestId);
+        channel.writeInt(payload.length);
+        channel.write(payload);
+        channel.flush();
+    }
+
+    private DataOutputStream connect() throws IOException {
+        if (socket == null || socket.isClosed()) {
+            socket = new Socket(serverIP, serverPort);
+            socket.setTcpNoDelay(true);
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Socket current = socket;
+            Thread reader = new Thread(() -> readResponses(current, in), "multiplexed-client-" + serverPort);
+            reader.setDaemon(true);
+            reader.start();
+            System.out.println("Opened multiplexed channel to " + serverIP + ":" + serverPort);
+        }
+        return out;
+    }
+
+    private void readResponses(Socket current, DataInputStream in) {
+        try {
+            while (true) {
+                int requestId = in.readInt();
+                byte[] response = new byte[in.readInt()];
+                in.readFully(response);
+                CompletableFuture<byte[]> future = pending.remove(requestId);
+                if (future != null) {
+                    future.complete(response);
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                if (socket == current) {
+                    disconnect(e);
+                }
+            }
+        }
+    }
+
+    private synchronized void disconnect(IOException cause) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+            socket = null;
+        }
+        for (Integer requestId : pending.keySet()) {
+            CompletableFuture<byte[]> future = pending.remove(requestId);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        disconnect(new IOException("Channel closed"));
+    }
+
+    // Sends the buffered request on first read, then serves the matched response
+    private class ResponseInputStream extends InputStream {
+        private final ByteArrayOutputStream request;
+        private InputStream response;
+
+        ResponseInputStream(ByteArrayOutputStream request) {
+            this.request = request;
+        }
+
+        private InputStream response() throws IOException {
+            if (response == null) {
+                response = new ByteArrayInputStream(MultiplexedClient.this.request(request.toByteArray()));
+            }
+            return response;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return response().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return response().read(b, off, len);
+        }
+    }
+}
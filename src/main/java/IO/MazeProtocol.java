@@ -0,0 +1,301 @@
+package IO;
+
+import Metrics.Histogram;
+import Metrics.MetricsRegistry;
+import algorithms.mazeGenerators.BitPackedMaze;
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+import algorithms.search.AState;
+import algorithms.search.MazeState;
+import algorithms.search.Solution;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact binary wire protocol used between the model and the generate/solve servers.
+ *
+ * Every message is one frame: [short magic][byte version][byte type][int length][payload].
+ * A Java serialization stream always starts with 0xACED, so a server can tell the two
+ * encodings apart from the first two bytes and keep serving object-stream clients.
+ *
+ * Payloads:
+ * - GENERATE_REQUEST: [int rows][int cols]
+ * - GENERATE_RESPONSE / SOLVE_REQUEST: the maze bytes from Maze.toByteArray, RLE compressed with MyCompressorOutputStream
+ * - SOLVE_FROM_REQUEST: [int row][int col] then the compressed maze, solved from that cell instead of the start
+ * - SOLVE_RESPONSE: [int n][n ints] cell indices (row * columns + col) from the source cell to goal
+ * - CANCEL_REQUEST: empty; sent over a multiplexed channel under the id of an earlier request, which is
+ *   dropped if still queued or interrupted if running, and never answered. The cancel itself gets no answer.
+ * - REJECTED: UTF-8 reason the server turned the request down (busy, too large, past its deadline)
+ * - ERROR: UTF-8 message
+ */
+public final class MazeProtocol {
+
+    public static final int MAGIC = 0x4D5A; // "MZ"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+
+    public static final int GENERATE_REQUEST = 1;
+    public static final int GENERATE_RESPONSE = 2;
+    public static final int SOLVE_REQUEST = 3;
+    public static final int SOLVE_RESPONSE = 4;
+    public static final int SOLVE_FROM_REQUEST = 5;
+    public static final int CANCEL_REQUEST = 6;
+    public static final int REJECTED = 0x7E;
+    public static final int ERROR = 0x7F;
+
+    private static final Histogram COMPRESS_TIME = MetricsRegistry.getInstance().histogram("protocol.compress.nanos");
+    private static final Histogram DECOMPRESS_TIME = MetricsRegistry.getInstance().histogram("protocol.decompress.nanos");
+
+    /**
+     * A decoded frame.
+     * @param version The protocol version the sender used.
+     * @param type The message type.
+     * @param payload The message payload.
+     */
+    public record Frame(int version, int type, byte[] payload) {
+    }
+
+    /**
+     * Thrown for a REJECTED response: the server did not run the request, so it may be retried later.
+     */
+    public static class RejectedException extends IOException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private MazeProtocol() {
+    }
+
+    public static byte[] frame(int type, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.putShort((short) MAGIC).put((byte) VERSION).put((byte) type).putInt(payload.length).put(payload);
+        return buffer.array();
+    }
+
+    public static void writeFrame(OutputStream out, int type, byte[] payload) throws IOException {
+        out.write(frame(type, payload));
+        out.flush();
+    }
+
+    /**
+     * Reads one frame from the stream.
+     * @throws IOException If the stream is not a binary frame or uses a newer version.
+     */
+    public static Frame readFrame(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int magic = data.readUnsignedShort();
+        if (magic != MAGIC) {
+            throw new StreamCorruptedException("Not a maze protocol frame: " + Integer.toHexString(magic));
+        }
+        int version = data.readUnsignedByte();
+        if (version > VERSION) {
+            throw new IOException("Unsupported maze protocol version " + version);
+        }
+        int type = data.readUnsignedByte();
+        byte[] payload = new byte[data.readInt()];
+        data.readFully(payload);
+        return new Frame(version, type, payload);
+    }
+
+    /**
+     * Checks whether a response is a binary frame at all. Servers that only speak
+     * object streams answer a binary request with a bare serialization header.
+     */
+    public static boolean isFrame(byte[] message) {
+        return message.length >= HEADER_SIZE && (((message[0] & 0xFF) << 8) | (message[1] & 0xFF)) == MAGIC;
+    }
+
+    /**
+     * Unwraps a response frame of the expected type.
+     * @throws IOException If the server sent an error or an unexpected frame.
+     */
+    public static byte[] readResponse(byte[] message, int expectedType) throws IOException {
+        return openResponse(message, expectedType).readAllBytes();
+    }
+
+    /**
+     * Like readResponse, but reads the payload in place instead of copying it.
+     */
+    public static InputStream openResponse(byte[] message, int expectedType) throws IOException {
+        if (!isFrame(message)) {
+            throw new StreamCorruptedException("Not a maze protocol frame");
+        }
+        int version = message[2] & 0xFF;
+        if (version > VERSION) {
+            throw new IOException("Unsupported maze protocol version " + version);
+        }
+        int type = message[3] & 0xFF;
+        int length = ByteBuffer.wrap(message, 4, 4).getInt();
+        if (length > message.length - HEADER_SIZE) {
+            throw new EOFException("Frame payload is truncated");
+        }
+        if (type == REJECTED) {
+            throw new RejectedException("Server rejected the request: " + new String(message, HEADER_SIZE, length, StandardCharsets.UTF_8));
+        }
+        if (type == ERROR) {
+            throw new IOException("Server error: " + new String(message, HEADER_SIZE, length, StandardCharsets.UTF_8));
+        }
+        if (type != expectedType) {
+            throw new IOException("Unexpected frame type " + type + ", expected " + expectedType);
+        }
+        return new ByteArrayInputStream(message, HEADER_SIZE, length);
+    }
+
+    /**
+     * Estimates the size of the work a request asks for: the rows x cols of the maze it generates or solves.
+     * @return The cell count, 0 if the frame carries no maze, or -1 if the request is not a binary frame.
+     */
+    public static long requestCells(byte[] request) {
+        if (!isFrame(request)) {
+            return -1;
+        }
+        ByteBuffer frame = ByteBuffer.wrap(request);
+        int type = request[3] & 0xFF;
+        if (type == GENERATE_REQUEST) {
+            if (request.length < HEADER_SIZE + 8) {
+                return 0;
+            }
+            return Math.max(0, (long) frame.getInt(HEADER_SIZE)) * Math.max(0, frame.getInt(HEADER_SIZE + 4));
+        }
+        int mazeOffset = type == SOLVE_FROM_REQUEST ? HEADER_SIZE + 8 : HEADER_SIZE;
+        if ((type != SOLVE_REQUEST && type != SOLVE_FROM_REQUEST) || request.length < mazeOffset + 4) {
+            return 0;
+        }
+        // The compressed maze starts with its dimensions as unsigned shorts, see decompressMazeBytes
+        return (long) (frame.getShort(mazeOffset) & 0xFFFF) * (frame.getShort(mazeOffset + 2) & 0xFFFF);
+    }
+
+    /**
+     * Checks whether a request is a CANCEL_REQUEST frame.
+     */
+    public static boolean isCancel(byte[] request) {
+        return isFrame(request) && (request[3] & 0xFF) == CANCEL_REQUEST;
+    }
+
+    public static byte[] cancelRequest() {
+        return frame(CANCEL_REQUEST, new byte[0]);
+    }
+
+    public static byte[] generateRequest(int rows, int cols) {
+        return frame(GENERATE_REQUEST, ByteBuffer.allocate(8).putInt(rows).putInt(cols).array());
+    }
+
+    /**
+     * A request to solve the maze from (row, col) rather than from its start position.
+     */
+    public static byte[] solveFromRequest(Maze maze, int row, int col) throws IOException {
+        byte[] compressedMaze = compressMaze(maze);
+        return frame(SOLVE_FROM_REQUEST, ByteBuffer.allocate(8 + compressedMaze.length).putInt(row).putInt(col).put(compressedMaze).array());
+    }
+
+    public static byte[] compressMaze(Maze maze) throws IOException {
+        return compressMazeBytes(maze.toByteArray());
+    }
+
+    /**
+     * Compresses maze bytes that are already in the Maze.toByteArray layout.
+     */
+    public static byte[] compressMazeBytes(byte[] mazeBytes) throws IOException {
+        long start = System.nanoTime();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        MyCompressorOutputStream compressor = new MyCompressorOutputStream(compressed);
+        compressor.write(mazeBytes);
+        compressor.flush();
+        COMPRESS_TIME.recordSince(start);
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Decompresses RLE maze bytes back into the Maze.toByteArray layout.
+     * The dimensions are read from the uncompressed header at the start of the data.
+     */
+    public static byte[] decompressMazeBytes(byte[] compressedMaze) throws IOException {
+        if (compressedMaze.length < 4) {
+            throw new EOFException("Compressed maze is too short");
+        }
+        int rows = ((compressedMaze[0] & 0xFF) << 8) | (compressedMaze[1] & 0xFF);
+        int cols = ((compressedMaze[2] & 0xFF) << 8) | (compressedMaze[3] & 0xFF);
+        long start = System.nanoTime();
+        byte[] mazeBytes = new byte[rows * cols + 12];
+        try (MyDecompressorInputStream decompressor = new MyDecompressorInputStream(new ByteArrayInputStream(compressedMaze))) {
+            decompressor.read(mazeBytes);
+        }
+        DECOMPRESS_TIME.recordSince(start);
+        return mazeBytes;
+    }
+
+    public static BitPackedMaze decompressMaze(byte[] compressedMaze) throws IOException {
+        return decompressMaze(new ByteArrayInputStream(compressedMaze));
+    }
+
+    /**
+     * Decodes an RLE compressed maze straight into a BitPackedMaze, run by run,
+     * without building the uncompressed byte[] first.
+     * @param in The compressed maze, as written by MyCompressorOutputStream.
+     */
+    public static BitPackedMaze decompressMaze(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        DataInputStream data = new DataInputStream(in);
+        int rows = data.readUnsignedShort();
+        int cols = data.readUnsignedShort();
+        BitPackedMaze maze = new BitPackedMaze(rows, cols);
+        maze.setStartPosition(new Position(data.readUnsignedShort(), data.readUnsignedShort()));
+        maze.setGoalPosition(new Position(data.readUnsignedShort(), data.readUnsignedShort()));
+
+        int value = data.readUnsignedByte(); // Value of the first run
+        int cell = 0;
+        int cells = rows * cols;
+        while (cell < cells) {
+            int run = data.readUnsignedByte(); // Runs over 255 are split as 255, 0, rest
+            if (cell + run > cells) {
+                throw new StreamCorruptedException("Run of " + run + " at cell " + cell + " overflows a maze of " + cells + " cells");
+            }
+            maze.fillCells(cell, cell + run, value);
+            cell += run;
+            value = 1 - value;
+        }
+        DECOMPRESS_TIME.recordSince(start);
+        return maze;
+    }
+
+    public static byte[] encodeSolution(Solution solution, int columns) {
+        List<AState> path = solution.getSolutionPath();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 * path.size());
+        buffer.putInt(path.size());
+        for (AState state : path) {
+            Position position = ((MazeState) state).getPosition();
+            buffer.putInt(position.getRowIndex() * columns + position.getColumnIndex());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Packs a path that is already a list of cell indices (row * columns + col).
+     */
+    public static byte[] encodeSolution(int[] path) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 * path.length);
+        buffer.putInt(path.length);
+        for (int cell : path) {
+            buffer.putInt(cell);
+        }
+        return buffer.array();
+    }
+
+    public static Solution decodeSolution(byte[] payload, int columns) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int length = buffer.getInt();
+        MazeState previous = null;
+        for (int i = 0; i < length; i++) {
+            int cell = buffer.getInt();
+            MazeState state = new MazeState(new Position(cell / columns, cell % columns));
+            state.setCameFrom(previous);
+            state.setCost(i);
+            previous = state;
+        }
+        return new Solution(previous);
+    }
+}
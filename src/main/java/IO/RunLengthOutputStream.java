@@ -0,0 +1,99 @@
+package IO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming version of MyCompressorOutputStream: writes the same RLE format
+ * (the 12 header bytes, the first cell value, then run lengths split at 255 as 255, 0, rest)
+ * but encodes byte by byte, so a maze can be compressed row by row without ever holding
+ * the whole Maze.toByteArray in memory. The last run is only written by finish() or close().
+ */
+public class RunLengthOutputStream extends OutputStream {
+
+    private static final int HEADER_SIZE = 12;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[8192]; // Encoded bytes not yet passed on
+    private int buffered;
+    private long written; // Bytes received so far, header included
+    private int runValue;
+    private int runLength;
+    private boolean finished;
+
+    public RunLengthOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (finished) {
+            throw new IOException("Stream already finished");
+        }
+        b &= 0xFF;
+        if (written < HEADER_SIZE) {
+            emit(b);
+        } else if (written == HEADER_SIZE) {
+            emit(b); // The first cell value is written as is, the runs alternate from it
+            runValue = b;
+            runLength = 1;
+        } else if (b == runValue) {
+            if (runLength == 255) {
+                emit(255);
+                emit(0); // Zero-length run of the other value, then this one continues
+                runLength = 0;
+            }
+            runLength++;
+        } else {
+            emit(runLength);
+            runValue = b;
+            runLength = 1;
+        }
+        written++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(b[i]);
+        }
+    }
+
+    private void emit(int b) throws IOException {
+        if (buffered == buffer.length) {
+            drain();
+        }
+        buffer[buffered++] = (byte) b;
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, buffered);
+        buffered = 0;
+    }
+
+    /**
+     * Writes the last run without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (written > HEADER_SIZE) {
+            emit(runLength);
+        }
+        flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+}
@@ -0,0 +1,23 @@
+package Metrics;
+
+/**
+ * What JMX shows of a Histogram.
+ */
+public interface HistogramMXBean {
+
+    long getCount();
+
+    double getMean();
+
+    long getMin();
+
+    long getMax();
+
+    long getP50();
+
+    long getP90();
+
+    long getP99();
+
+    long getP999();
+}
@@ -0,0 +1,14 @@
+package Metrics;
+
+/**
+ * Log level of the debug traces, read once from the maze.log system property
+ * ("debug" turns them on; off by default). DEBUG is a static final, so the JIT folds
+ * "if (Log.DEBUG)" away together with the message building it guards.
+ */
+public final class Log {
+
+    public static final boolean DEBUG = "debug".equalsIgnoreCase(System.getProperty("maze.log", "info"));
+
+    private Log() {
+    }
+}
@@ -0,0 +1,175 @@
+package Metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The process-wide set of named metrics: histograms, counters and gauges (values read
+ * on demand, such as a queue depth). Every metric is registered with the platform
+ * MBeanServer under the "Maze" domain, and startDumping writes them all to a text file
+ * at a fixed interval. Names are dotted and end in their unit, e.g. "model.solve.nanos".
+ */
+public final class MetricsRegistry {
+
+    private static final String JMX_DOMAIN = "Maze";
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    /**
+     * A count that only goes up.
+     */
+    public static final class Counter implements ValueMXBean {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        @Override
+        public long getValue() {
+            return value.sum();
+        }
+    }
+
+    // A value read when asked for
+    private record Gauge(LongSupplier supplier) implements ValueMXBean {
+        @Override
+        public long getValue() {
+            return supplier.getAsLong();
+        }
+    }
+
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>(); // Sorted, for the dump
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+    private ScheduledExecutorService dumper;
+    private File dumpFile;
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> register(key, "Histogram", new Histogram()));
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> register(key, "Counter", new Counter()));
+    }
+
+    /**
+     * Registers a value that is read on demand, replacing any earlier gauge of that name
+     * (so a component created again reports its own value, not the old one's).
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.compute(name, (key, previous) -> {
+            if (previous != null) {
+                unregister(key, "Gauge");
+            }
+            return register(key, "Gauge", new Gauge(value));
+        });
+    }
+
+    private static <T> T register(String name, String type, T metric) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(name, type);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metric, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not expose metric " + name + " over JMX: " + e.getMessage());
+        }
+        return metric;
+    }
+
+    private static void unregister(String name, String type) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name, type));
+        } catch (JMException e) {
+            // Was never registered
+        }
+    }
+
+    private static ObjectName objectName(String name, String type) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * All metrics as text, one per line.
+     */
+    public String snapshot() {
+        StringBuilder text = new StringBuilder("# Maze metrics at ").append(Instant.now()).append('\n');
+        histograms.forEach((name, histogram) -> text.append(name).append(' ').append(histogram).append('\n'));
+        counters.forEach((name, counter) -> text.append(name).append(' ').append(counter.getValue()).append('\n'));
+        gauges.forEach((name, gauge) -> {
+            long value;
+            try {
+                value = gauge.getValue();
+            } catch (RuntimeException e) {
+                return; // Its component is gone or shutting down
+            }
+            text.append(name).append(' ').append(value).append('\n');
+        });
+        return text.toString();
+    }
+
+    /**
+     * Writes the snapshot to the file every periodMillis on a daemon thread, replacing
+     * the previous contents in one move so readers never see half a dump.
+     */
+    public synchronized void startDumping(File file, long periodMillis) {
+        stopDumping();
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic dump, writing one last snapshot first.
+     */
+    public synchronized void stopDumping() {
+        if (dumper == null) {
+            return;
+        }
+        dumper.shutdownNow();
+        dumper = null;
+        dump(dumpFile);
+    }
+
+    private void dump(File file) {
+        try {
+            File temp = new File(file.getPath() + ".tmp");
+            Files.writeString(temp.toPath(), snapshot(), StandardCharsets.UTF_8);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+}
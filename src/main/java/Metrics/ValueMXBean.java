@@ -0,0 +1,9 @@
+package Metrics;
+
+/**
+ * What JMX shows of a counter or gauge.
+ */
+public interface ValueMXBean {
+
+    long getValue();
+}
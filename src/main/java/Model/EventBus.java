@@ -0,0 +1,117 @@
+package Model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Typed publish/subscribe for ModelEvents. A subscriber registers for an event type
+ * and receives every published event of that type, subtypes included.
+ * Plain subscribers run on the publishing thread. Subscribers given an Executor, such as
+ * Platform::runLater, receive their events in batches: events queue up per subscriber and
+ * only one drain task at a time is handed to the executor. Consecutive coalescing events
+ * still in the queue collapse into the latest, so a burst of player moves costs one task
+ * and one redraw, not one per move.
+ */
+public class EventBus {
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Delivers events of the given type on the publishing thread.
+     */
+    public <E extends ModelEvent> Subscription<E> subscribe(Class<E> type, Consumer<? super E> listener) {
+        return subscribe(type, null, listener);
+    }
+
+    /**
+     * Delivers events of the given type in batches run by the executor.
+     * @param executor Runs the drain tasks, or null to deliver on the publishing thread.
+     */
+    public <E extends ModelEvent> Subscription<E> subscribe(Class<E> type, Executor executor, Consumer<? super E> listener) {
+        Subscription<E> subscription = new Subscription<>(type, executor, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public void publish(ModelEvent event) {
+        for (Subscription<?> subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * One registered listener; cancel it to stop receiving events.
+     */
+    public final class Subscription<E extends ModelEvent> {
+        private final Class<E> type;
+        private final Executor executor;
+        private final Consumer<? super E> listener;
+        private final ArrayDeque<E> pending = new ArrayDeque<>(); // Guarded by itself
+        private boolean scheduled; // A drain task is queued on the executor
+        private volatile boolean cancelled;
+
+        private Subscription(Class<E> type, Executor executor, Consumer<? super E> listener) {
+            this.type = type;
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void offer(ModelEvent event) {
+            if (!type.isInstance(event)) {
+                return;
+            }
+            E typed = type.cast(event);
+            if (executor == null) {
+                deliver(typed);
+                return;
+            }
+            boolean schedule;
+            synchronized (pending) {
+                E last = pending.peekLast();
+                if (last != null && typed.coalesces() && last.getClass() == typed.getClass()) {
+                    pending.pollLast();
+                }
+                pending.add(typed);
+                schedule = !scheduled;
+                scheduled = true;
+            }
+            if (schedule) {
+                executor.execute(this::drain);
+            }
+        }
+
+        // Delivers what was queued when the task started; later events get a task of their own
+        private void drain() {
+            List<E> batch;
+            synchronized (pending) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                scheduled = false;
+            }
+            for (E event : batch) {
+                deliver(event);
+            }
+        }
+
+        private void deliver(E event) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("Event listener failed on " + event + ": " + e.getMessage());
+                e.printStackTrace(); // Print full stack trace for debugging
+            }
+        }
+    }
+}
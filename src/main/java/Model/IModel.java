@@ -1,32 +1,28 @@
 package Model;
 
 import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
 import algorithms.search.Solution;
 
-import java.util.Observable;
-import java.util.Observer; // For assignObserver(Observer o)
-import ViewModel.MyViewModel; // For addObserver(MyViewModel o)
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 public interface IModel {
     /**
-     * Assigns a general observer to the model.
-     * @param o The observer to register.
+     * Returns the bus the model publishes its events on.
+     * @return The model's event bus.
      */
-    void assignObserver(Observer o);
+    EventBus getEvents();
 
     /**
-     * Assigns a specific MyViewModel observer to the model.
-     * This is needed if the IModel interface explicitly requires it.
-     * @param o The MyViewModel observer to register.
-     */
-    void addObserver(MyViewModel o); // Specific for MyViewModel
-
-    /**
-     * Generates a new maze with the specified dimensions.
+     * Generates a new maze with the specified dimensions, in the background. This cancels
+     * any generate still in flight, so only the newest one's maze is ever shown.
      * @param rows The number of rows for the maze.
      * @param cols The number of columns for the maze.
+     * @return The request; cancelling it stops the generation, on the server too, and drops its maze.
      */
-    void generateMaze(int rows, int cols);
+    Future<?> generateMaze(int rows, int cols);
 
     /**
      * Returns the currently generated maze.
@@ -35,7 +31,8 @@ public interface IModel {
     Maze getMaze();
 
     /**
-     * Updates the player's location based on the given direction.
+     * Moves the player one cell in the given direction, if it is open. Moves are applied
+     * in the order they are made, possibly after this call returns.
      * @param direction The direction of movement.
      */
     void updatePlayerLocation(MovementDirection direction);
@@ -53,9 +50,17 @@ public interface IModel {
     int getPlayerCol();
 
     /**
-     * Solves the current maze and provides the solution.
+     * Returns the player's row and column, read together.
+     * @return The player's position.
      */
-    void solveMaze();
+    Position getPlayerPosition();
+
+    /**
+     * Solves the current maze and provides the solution, in the background. This cancels any
+     * solve still in flight; a new maze cancels it too.
+     * @return The request; cancelling it stops the search, on the server too, and drops its solution.
+     */
+    Future<?> solveMaze();
 
     /**
      * Returns the solution to the current maze.
@@ -68,6 +73,30 @@ public interface IModel {
      */
     void clearSolution();
 
+    /**
+     * Turns solving each new maze in the background, before it is asked for, on or off.
+     * @param enabled true to solve speculatively.
+     */
+    void setSpeculativeSolve(boolean enabled);
+
+    /**
+     * Returns the move that brings the player closest to the goal.
+     * @return The direction, or null at the goal or while it is not known yet.
+     */
+    MovementDirection getHint();
+
+    /**
+     * Returns the number of steps left from the player to the goal.
+     * @return The distance, or -1 while it is not known yet.
+     */
+    int getDistanceToGoal();
+
+    /**
+     * Returns how far the player has come from the start towards the goal.
+     * @return A fraction from 0 to 1, or -1 while it is not known yet.
+     */
+    double getProgress();
+
     /**
      * Saves the current maze to the specified file path.
      * @param filePath The path to the file where the maze will be saved.
@@ -80,10 +109,20 @@ public interface IModel {
      */
     void loadMaze(String filePath);
 
+    /**
+     * Returns the runtime settings in force.
+     * @return Every setting by its property key.
+     */
+    Map<String, String> getSettings();
+
+    /**
+     * Returns the file the settings are reloaded from whenever it changes.
+     * @return The settings file, which may not exist yet.
+     */
+    File getSettingsFile();
+
     /**
      * Stops any running servers and releases resources.
      */
     void stopServers();
-
-    void update(Observable o, Object arg);
 }
@@ -0,0 +1,313 @@
+package Model;
+
+import Metrics.MetricsRegistry;
+import algorithms.mazeGenerators.BitPackedMaze;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a few ready-made mazes for each recently requested size, so asking for one of
+ * those sizes again returns instantly. Taking a maze queues its replacement on a single
+ * low-priority background thread. A size is only pooled once it is asked for a second time,
+ * and only after the caller's own maze for that miss is done, so the refills never compete
+ * with it for the generating server. The ready mazes are kept under a byte budget; when it
+ * runs out, mazes go first from the size with the lowest score, which is how often it was
+ * requested divided by how many requests ago it was last asked for.
+ */
+public class MazePool {
+
+    public static final int DEFAULT_MAZES_PER_SIZE = 2;
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_TRACKED_SIZES = 16;
+
+    /**
+     * Produces the pooled mazes, typically by asking the generating server.
+     */
+    public interface MazeSource {
+        /**
+         * @return The new maze, or null if none can be produced right now.
+         */
+        BitPackedMaze generate(int rows, int cols) throws Exception;
+    }
+
+    // What the pool knows about one requested size
+    private static class SizeEntry {
+        final int rows;
+        final int cols;
+        final ArrayDeque<BitPackedMaze> ready = new ArrayDeque<>();
+        int requests;
+        long lastRequest;
+        int refilling; // Mazes queued or being generated
+        boolean pooled; // Asked for again, or warmed up; until then it is only tracked
+
+        SizeEntry(int rows, int cols) {
+            this.rows = rows;
+            this.cols = cols;
+        }
+    }
+
+    private final MazeSource source;
+    private int mazesPerSize;
+    private long maxBytes;
+    private final ExecutorService refillExecutor;
+    private final Map<Long, SizeEntry> sizes = new HashMap<>();
+    private long clock; // Number of take() calls so far, used as the recency clock
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong refillNanos = new AtomicLong();
+    private volatile long lastRefillNanos;
+
+    public MazePool(MazeSource source) {
+        this(source, DEFAULT_MAZES_PER_SIZE, DEFAULT_MAX_BYTES);
+    }
+
+    public MazePool(MazeSource source, int mazesPerSize, long maxBytes) {
+        this.source = source;
+        this.mazesPerSize = mazesPerSize;
+        this.maxBytes = maxBytes;
+        this.refillExecutor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "maze-pool-refill");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("mazePool.hits", hits::get);
+        metrics.gauge("mazePool.misses", misses::get);
+        metrics.gauge("mazePool.evictions", evictions::get);
+        metrics.gauge("mazePool.ready", this::getReadyCount);
+    }
+
+    /**
+     * Takes a ready maze of the given size and queues a replacement for it.
+     * @return The maze, or null if none is ready; the caller then generates one itself and calls missServed.
+     */
+    public BitPackedMaze take(int rows, int cols) {
+        SizeEntry entry;
+        BitPackedMaze maze;
+        synchronized (this) {
+            entry = sizes.get(key(rows, cols));
+            if (entry == null) {
+                forgetLeastValuableSize();
+                entry = new SizeEntry(rows, cols);
+                sizes.put(key(rows, cols), entry);
+            }
+            entry.requests++;
+            entry.lastRequest = ++clock;
+            maze = entry.ready.poll();
+            if (maze != null) {
+                currentBytes -= sizeOf(rows, cols);
+                scheduleRefill(entry);
+            }
+        }
+        (maze != null ? hits : misses).incrementAndGet();
+        return maze;
+    }
+
+    /**
+     * Tells the pool the caller's own maze for a missed size is done. From the size's second
+     * request on, this starts filling the pool for it.
+     */
+    public synchronized void missServed(int rows, int cols) {
+        SizeEntry entry = sizes.get(key(rows, cols));
+        if (entry != null && entry.requests >= 2) {
+            entry.pooled = true;
+            scheduleRefill(entry);
+        }
+    }
+
+    /**
+     * Starts filling the pool for a size that has not been requested yet.
+     */
+    public synchronized void warmUp(int rows, int cols) {
+        SizeEntry entry = sizes.get(key(rows, cols));
+        if (entry == null) {
+            forgetLeastValuableSize();
+            entry = new SizeEntry(rows, cols);
+            entry.lastRequest = clock;
+            sizes.put(key(rows, cols), entry);
+        }
+        entry.pooled = true;
+        scheduleRefill(entry);
+    }
+
+    /**
+     * Changes how many mazes are kept per size and the byte budget. Shrinking drops
+     * the surplus at once, lowest scored sizes first; growing queues the refills.
+     */
+    public synchronized void setLimits(int mazesPerSize, long maxBytes) {
+        this.mazesPerSize = mazesPerSize;
+        this.maxBytes = maxBytes;
+        for (SizeEntry entry : sizes.values()) {
+            while (entry.ready.size() > mazesPerSize) {
+                drop(entry);
+            }
+        }
+        while (currentBytes > maxBytes) {
+            SizeEntry victim = null;
+            for (SizeEntry candidate : sizes.values()) {
+                if (!candidate.ready.isEmpty() && (victim == null || score(candidate) < score(victim))) {
+                    victim = candidate;
+                }
+            }
+            drop(victim);
+        }
+        for (SizeEntry entry : sizes.values()) {
+            scheduleRefill(entry);
+        }
+    }
+
+    // Called with the lock held
+    private void drop(SizeEntry entry) {
+        entry.ready.pollLast();
+        currentBytes -= sizeOf(entry.rows, entry.cols);
+        evictions.incrementAndGet();
+    }
+
+    // Called with the lock held
+    private void scheduleRefill(SizeEntry entry) {
+        if (!entry.pooled || sizeOf(entry.rows, entry.cols) > maxBytes) {
+            return; // Not asked for twice yet, or would never fit
+        }
+        while (entry.ready.size() + entry.refilling < mazesPerSize) {
+            try {
+                refillExecutor.execute(() -> refill(entry));
+            } catch (RejectedExecutionException e) {
+                return; // Shut down
+            }
+            entry.refilling++;
+        }
+    }
+
+    private void refill(SizeEntry entry) {
+        long start = System.nanoTime();
+        BitPackedMaze maze = null;
+        try {
+            maze = source.generate(entry.rows, entry.cols);
+        } catch (Exception e) {
+            System.err.println("Maze pool refill failed for " + entry.rows + "x" + entry.cols + ": " + e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            entry.refilling--;
+            if (maze == null || sizes.get(key(entry.rows, entry.cols)) != entry) {
+                return; // Nothing made, or the size was forgotten meanwhile
+            }
+            refills.incrementAndGet();
+            refillNanos.addAndGet(elapsed);
+            lastRefillNanos = elapsed;
+            offer(entry, maze);
+        }
+    }
+
+    // Adds a maze, evicting from less valuable sizes to stay under the byte budget
+    private void offer(SizeEntry entry, BitPackedMaze maze) {
+        long bytes = sizeOf(entry.rows, entry.cols);
+        while (currentBytes + bytes > maxBytes) {
+            SizeEntry victim = null;
+            for (SizeEntry candidate : sizes.values()) {
+                if (!candidate.ready.isEmpty() && (victim == null || score(candidate) < score(victim))) {
+                    victim = candidate;
+                }
+            }
+            if (victim == null || victim == entry || score(victim) > score(entry)) {
+                evictions.incrementAndGet(); // Everything pooled is worth more than the new maze
+                return;
+            }
+            drop(victim);
+        }
+        entry.ready.add(maze);
+        currentBytes += bytes;
+    }
+
+    // Drops the lowest scored idle size once too many sizes are tracked
+    private void forgetLeastValuableSize() {
+        if (sizes.size() < MAX_TRACKED_SIZES) {
+            return;
+        }
+        SizeEntry victim = null;
+        for (SizeEntry candidate : sizes.values()) {
+            if (candidate.refilling == 0 && (victim == null || score(candidate) < score(victim))) {
+                victim = candidate;
+            }
+        }
+        if (victim == null) {
+            return;
+        }
+        sizes.remove(key(victim.rows, victim.cols));
+        currentBytes -= victim.ready.size() * sizeOf(victim.rows, victim.cols);
+        evictions.addAndGet(victim.ready.size());
+    }
+
+    private double score(SizeEntry entry) {
+        return entry.requests / (double) (1 + clock - entry.lastRequest);
+    }
+
+    private static long key(int rows, int cols) {
+        return ((long) rows << 32) | (cols & 0xFFFFFFFFL);
+    }
+
+    // Packed grid plus a rough allowance for the object headers
+    private static long sizeOf(int rows, int cols) {
+        return ((long) rows * cols + 63) / 64 * 8 + 128;
+    }
+
+    public void shutdown() {
+        refillExecutor.shutdownNow();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long requests = hits.get() + misses.get();
+        return requests == 0 ? 0 : (double) hits.get() / requests;
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public double getAverageRefillMillis() {
+        long count = refills.get();
+        return count == 0 ? 0 : refillNanos.get() / 1e6 / count;
+    }
+
+    public double getLastRefillMillis() {
+        return lastRefillNanos / 1e6;
+    }
+
+    public synchronized int getReadyCount() {
+        int count = 0;
+        for (SizeEntry entry : sizes.values()) {
+            count += entry.ready.size();
+        }
+        return count;
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("MazePool[ready=%d, bytes=%d/%d, hits=%d, misses=%d, hitRate=%.2f, evictions=%d, avgRefill=%.1fms, lastRefill=%.1fms]",
+                getReadyCount(), getCurrentBytes(), maxBytes, getHits(), getMisses(), getHitRate(), getEvictions(),
+                getAverageRefillMillis(), getLastRefillMillis());
+    }
+}
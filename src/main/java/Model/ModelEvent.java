@@ -0,0 +1,44 @@
+package Model;
+
+import algorithms.mazeGenerators.Maze;
+import algorithms.search.Solution;
+
+/**
+ * Everything the model reports, published on its EventBus. Each event carries its own
+ * payload, so a subscriber does not have to read the model back to handle it.
+ */
+public sealed interface ModelEvent {
+
+    /**
+     * Whether a newer event of the same type makes this one pointless. Consecutive
+     * coalescing events still waiting for the same delivery collapse into the latest.
+     */
+    default boolean coalesces() {
+        return false;
+    }
+
+    record MazeGenerated(Maze maze, int playerRow, int playerCol) implements ModelEvent {
+    }
+
+    record PlayerMoved(int row, int col) implements ModelEvent {
+        @Override
+        public boolean coalesces() {
+            return true; // Only the latest position needs drawing
+        }
+    }
+
+    record MazeSolved(Solution solution) implements ModelEvent {
+    }
+
+    record SolutionCleared() implements ModelEvent {
+    }
+
+    record MazeCompleted(int row, int col) implements ModelEvent {
+    }
+
+    /**
+     * A model operation failed; the details are also printed to System.err.
+     */
+    record Failed(String message) implements ModelEvent {
+    }
+}
@@ -1,69 +1,239 @@
 package Model;
 
+import algorithms.mazeGenerators.BitPackedMaze;
 import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+import algorithms.search.GoalField;
+import algorithms.search.SearchableIndexedMaze;
 import algorithms.search.Solution;
-import Server.Server;
-import Server.ServerStrategyGenerateMaze;
-import Server.ServerStrategySolveSearchProblem;
-import Client.Client;
+import Server.IServer;
+import Server.RuntimeConfiguration;
+import Server.ServerStrategyGenerateMazeBinary;
+import Server.ServerStrategySolveSearchProblemBinary;
+import Server.Settings;
+import Server.SolutionCache;
 import Client.IClientStrategy;
-import ViewModel.MyViewModel;
-import IO.MyDecompressorInputStream;
+import Client.MultiplexedClient;
+import IO.MazeProtocol;
+import Metrics.Histogram;
+import Metrics.Log;
+import Metrics.MetricsRegistry;
 import java.io.*;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.Observer;
-import java.util.Observable;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class MyModel implements IModel {
+
+    private volatile BitPackedMaze maze; // One bit per cell, see BitPackedMaze
+    private final AtomicLong player = new AtomicLong(); // Row in the high half, column in the low half, read in one go
+    // Moves and maze switches are applied in arrival order by a single writer, the player-updates thread
+    private final Queue<Runnable> playerUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean playerUpdatesScheduled = new AtomicBoolean();
+    private final ExecutorService playerUpdateExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "player-updates");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Solution solution; // Written on the player-updates thread only, like the maze it belongs to
+    private final EventBus events = new EventBus(); // Everything the model reports goes out here
+    private IServer mazeGeneratingServer;
+    private IServer solveSearchProblemServer;
+    private ServerStrategySolveSearchProblemBinary solveStrategy; // Its solution cache is shared with the generate server and reported on shutdown
+    private ServerStrategyGenerateMazeBinary generateStrategy;
+    private ThreadPoolExecutor modelThreadPool; // Thread pool for model operations, resized with the settings
+    // The newest generate and solve; each new one cancels its predecessor, whose result is then dropped
+    private final AtomicReference<CompletableFuture<Void>> newestGenerate = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Void>> newestSolve = new AtomicReference<>();
+    private volatile Settings settings; // The settings in force: ports, pool sizes, cache budgets
+    private final Consumer<Settings> settingsListener = this::applySettings;
+    private volatile boolean stopped;
+    private final MazePool mazePool; // Ready-made mazes for recently requested sizes
+    private final Map<Integer, MultiplexedClient> serverChannels = new ConcurrentHashMap<>(); // One long-lived channel per port
+    private volatile boolean binaryProtocol = true; // Cleared once a server answers with object streams only
+    private volatile boolean speculativeSolve; // Opt-in: solve every new maze in the background
+    private volatile Speculation speculation; // The background solve for the current maze, if any
+    private final ExecutorService speculationExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "speculative-solve");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private volatile MazeGoalField goalField; // Distances to the goal of the current maze, once built
+    private final ExecutorService goalFieldExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "goal-field");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // A solve started as soon as its maze arrived; only valid while that same maze instance is shown
+    private record Speculation(BitPackedMaze maze, Future<Solution> solution) {
+    }
 
-public class MyModel extends Observable implements IModel {
+    // A goal field and the maze instance it was built for
+    private record MazeGoalField(BitPackedMaze maze, SearchableIndexedMaze domain, GoalField field) {
+    }
 
-    private Maze maze;
-    private int playerRow;
-    private int playerCol;
-    private Solution solution;
-    private Server mazeGeneratingServer;
-    private Server solveSearchProblemServer;
-    private ExecutorService modelThreadPool; // Thread pool for model operations
+    private static final File METRICS_DUMP_FILE = new File(System.getProperty("java.io.tmpdir"), "maze-metrics.txt");
 
-    // Hardcoded configuration values
-    private static final int MAZE_GENERATING_SERVER_PORT = 5400;
-    private static final int SOLVE_SEARCH_PROBLEM_SERVER_PORT = 5401;
-    private static final int THREAD_POOL_SIZE = 3;
-    private static final int DEFAULT_LISTENING_INTERVAL = 1000;
+    private static final Histogram GENERATE_TIME = MetricsRegistry.getInstance().histogram("model.generate.nanos");
+    private static final Histogram SOLVE_TIME = MetricsRegistry.getInstance().histogram("model.solve.nanos");
 
 
     public MyModel() {
-        // Initialize servers with hardcoded ports and strategies
-        mazeGeneratingServer = new Server(MAZE_GENERATING_SERVER_PORT, DEFAULT_LISTENING_INTERVAL, new ServerStrategyGenerateMaze());
-        solveSearchProblemServer = new Server(SOLVE_SEARCH_PROBLEM_SERVER_PORT, DEFAULT_LISTENING_INTERVAL, new ServerStrategySolveSearchProblem());
+        // Everything below is sized from the runtime settings, and follows them when the file changes
+        RuntimeConfiguration configuration = RuntimeConfiguration.getInstance();
+        settings = configuration.get();
+
+        // Each strategy is wrapped so one client connection can carry many requests
+        solveStrategy = new ServerStrategySolveSearchProblemBinary(new SolutionCache(settings.solutionCacheMaxBytes()));
+        generateStrategy = new ServerStrategyGenerateMazeBinary(solveStrategy.getSolutionCache());
+        startServers(settings);
+
+        // Initialize a thread pool for model operations
+        modelThreadPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(settings.modelThreadPoolSize());
+        speculativeSolve = settings.speculativeSolve();
+
+        // Pooled mazes come from the same server, over the binary protocol only
+        mazePool = new MazePool((rows, cols) -> binaryProtocol ? fetchMazeBinary(rows, cols) : null,
+                settings.mazePoolMazesPerSize(), settings.mazePoolMaxBytes());
 
-        // Start servers in separate threads
+        // Also exposed over JMX under the "Maze" domain
+        MetricsRegistry.getInstance().startDumping(METRICS_DUMP_FILE, settings.metricsDumpIntervalMs());
+
+        configuration.addListener(settingsListener);
+        configuration.startWatching();
+    }
+
+    // Starts both servers in their own threads, on the engine the settings name
+    private void startServers(Settings serverSettings) {
+        mazeGeneratingServer = IServer.multiplexed(serverSettings.serverEngine(), serverSettings.mazeGeneratingServerPort(),
+                serverSettings.listeningIntervalMs(), generateStrategy);
+        solveSearchProblemServer = IServer.multiplexed(serverSettings.serverEngine(), serverSettings.solveSearchProblemServerPort(),
+                serverSettings.listeningIntervalMs(), solveStrategy);
         mazeGeneratingServer.start();
         solveSearchProblemServer.start();
+    }
 
-        // Initialize a thread pool for model operations with hardcoded size
-        modelThreadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+    // Called on the config-watcher thread with each reloaded Settings
+    private synchronized void applySettings(Settings next) {
+        if (stopped) {
+            return; // Reloaded while shutting down
+        }
+        Settings previous = settings;
+        if (next.mazeGeneratingServerPort() != previous.mazeGeneratingServerPort()
+                || next.solveSearchProblemServerPort() != previous.solveSearchProblemServerPort()
+                || !next.serverEngine().equals(previous.serverEngine())
+                || next.listeningIntervalMs() != previous.listeningIntervalMs()) {
+            restartServers(previous, next);
+        }
+        settings = next;
+        RuntimeConfiguration.resize(modelThreadPool, next.modelThreadPoolSize());
+        solveStrategy.getSolutionCache().setMaxBytes(next.solutionCacheMaxBytes());
+        mazePool.setLimits(next.mazePoolMazesPerSize(), next.mazePoolMaxBytes());
+        if (next.metricsDumpIntervalMs() != previous.metricsDumpIntervalMs()) {
+            MetricsRegistry.getInstance().startDumping(METRICS_DUMP_FILE, next.metricsDumpIntervalMs());
+        }
+        if (next.speculativeSolve() != previous.speculativeSolve()) {
+            setSpeculativeSolve(next.speculativeSolve());
+        }
     }
 
-    @Override
-    public void assignObserver(Observer o) {
-        this.addObserver(o);
+    // Requests sent meanwhile fail like any other lost connection
+    private void restartServers(Settings previous, Settings next) {
+        System.out.println("Restarting servers on ports " + next.mazeGeneratingServerPort() + " and " + next.solveSearchProblemServerPort()
+                + " with the " + next.serverEngine() + " engine");
+        mazeGeneratingServer.stop();
+        solveSearchProblemServer.stop();
+        serverChannels.values().forEach(MultiplexedClient::close);
+        serverChannels.clear();
+        if (previous.serverEngine().equals("blocking")) {
+            try {
+                // The original Server notices within one accept timeout, then releases its port
+                Thread.sleep(previous.listeningIntervalMs() + 100L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        startServers(next);
     }
 
     @Override
-    public void addObserver(MyViewModel o) {
-        super.addObserver(o);
+    public EventBus getEvents() {
+        return events;
+    }
+
+
+    private MultiplexedClient channelTo(int port) throws UnknownHostException {
+        InetAddress host = InetAddress.getLocalHost();
+        return serverChannels.computeIfAbsent(port, p -> new MultiplexedClient(host, p));
+    }
+
+    // Makes a new request the newest of its kind, cancelling the one it supersedes
+    private static CompletableFuture<Void> supersede(AtomicReference<CompletableFuture<Void>> newest) {
+        CompletableFuture<Void> request = new CompletableFuture<>();
+        CompletableFuture<Void> previous = newest.getAndSet(request);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        return request;
     }
 
+    // Runs the work on the model pool as the newest request of its kind. Cancelling the returned
+    // request interrupts the work, which in turn cancels its call to the server, if any.
+    private CompletableFuture<Void> submitNewest(AtomicReference<CompletableFuture<Void>> newest, Consumer<CompletableFuture<Void>> work) {
+        CompletableFuture<Void> request = supersede(newest); // Before the work starts, so the older one is dropped first
+        Future<?> running = modelThreadPool.submit(() -> {
+            try {
+                if (!request.isDone()) {
+                    work.accept(request);
+                }
+            } finally {
+                request.complete(null);
+            }
+        });
+        request.whenComplete((ignored, failure) -> {
+            if (request.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return request;
+    }
 
     @Override
-    public void generateMaze(int rows, int cols) {
-        modelThreadPool.execute(() -> {
+    public CompletableFuture<Void> generateMaze(int rows, int cols) {
+        long start = System.nanoTime();
+        return submitNewest(newestGenerate, request -> {
             try {
-                Client mazeClient = new Client(InetAddress.getLocalHost(), MAZE_GENERATING_SERVER_PORT, new IClientStrategy() {
+                BitPackedMaze pooled = mazePool.take(rows, cols);
+                if (pooled != null) {
+                    GENERATE_TIME.recordSince(start);
+                    onMazeGenerated(pooled, request);
+                    return;
+                }
+                if (binaryProtocol && generateMazeBinary(rows, cols, start, request)) {
+                    return;
+                }
+                channelTo(settings.mazeGeneratingServerPort()).communicateWithServer(new IClientStrategy() {
                     @Override
                     public void clientStrategy(InputStream inFromServer, OutputStream outToServer) {
                         try {
@@ -74,54 +244,307 @@ public class MyModel extends Observable implements IModel {
                             ObjectInputStream objectIn = new ObjectInputStream(inFromServer);
                             byte[] compressedMaze = (byte[]) objectIn.readObject(); // Receive compressed maze bytes
 
-                            // The size calculation needs to be precise for decompression
-                            int expectedSize = rows * cols + 12; // Maze data + 4 ints (rows, cols, startR, startC, goalR, goalC)
-                            byte[] decompressedMaze = new byte[expectedSize];
-                            MyDecompressorInputStream decompressionStream =
-                                    new MyDecompressorInputStream(new ByteArrayInputStream(compressedMaze));
-                            decompressionStream.read(decompressedMaze);
-                            decompressionStream.close(); // Close the stream
-
-                            maze = new Maze(decompressedMaze); // Create Maze object from decompressed data
-                            playerRow = maze.getStartPosition().getRowIndex();
-                            playerCol = maze.getStartPosition().getColumnIndex();
-                            solution = null; // Clear any old solution
-
-                            setChanged();
-                            notifyObservers("maze generated");
+                            // Decode the runs straight into the packed grid; the size comes from the maze header
+                            BitPackedMaze generated = MazeProtocol.decompressMaze(new ByteArrayInputStream(compressedMaze));
+                            GENERATE_TIME.recordSince(start);
+                            onMazeGenerated(generated, request);
 
                         } catch (Exception e) {
-                            System.err.println("Client strategy for maze generation failed: " + e.getMessage());
-                            e.printStackTrace(); // Print full stack trace for debugging
-                            setChanged();
-                            notifyObservers("error");
+                            publishFailure(request, "Client strategy for maze generation failed: " + e.getMessage(), e);
                         }
                     }
                 });
-                mazeClient.communicateWithServer();
             } catch (UnknownHostException e) {
-                System.err.println("Unknown host for maze generation server: " + e.getMessage());
-                e.printStackTrace(); // Print full stack trace for debugging
-                setChanged();
-                notifyObservers("error");
+                publishFailure(request, "Unknown host for maze generation server: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    // Returns false if the server does not speak the binary protocol, so the caller can fall back
+    private boolean generateMazeBinary(int rows, int cols, long start, CompletableFuture<Void> request) {
+        try {
+            BitPackedMaze generated = fetchMazeBinary(rows, cols);
+            if (generated == null) {
+                return false;
+            }
+            GENERATE_TIME.recordSince(start);
+            onMazeGenerated(generated, request);
+            mazePool.missServed(rows, cols); // Only now, so no refill is queued ahead of this maze on the server
+        } catch (IOException e) {
+            publishFailure(request, "Binary maze generation request failed: " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    // Reports a failed generate or solve, unless it was cancelled: then the failure is just its interruption
+    private void publishFailure(CompletableFuture<Void> request, String message, Exception e) {
+        if (request.isCancelled()) {
+            return;
+        }
+        System.err.println(message);
+        e.printStackTrace(); // Print full stack trace for debugging
+        events.publish(new ModelEvent.Failed(message));
+    }
+
+    // Requests one maze over the binary protocol; null if the server only speaks object streams
+    private BitPackedMaze fetchMazeBinary(int rows, int cols) throws IOException {
+        byte[] response = channelTo(settings.mazeGeneratingServerPort()).request(MazeProtocol.generateRequest(rows, cols));
+        if (!MazeProtocol.isFrame(response)) {
+            System.out.println("Maze generating server does not support the binary protocol, using object streams.");
+            binaryProtocol = false;
+            return null;
+        }
+        // Decoded in place from the response frame, so the only full-size copy is the packed grid
+        return MazeProtocol.decompressMaze(MazeProtocol.openResponse(response, MazeProtocol.GENERATE_RESPONSE));
+    }
+
+    // Switches to the new maze on the player-updates thread, after any moves queued before it,
+    // unless a newer request superseded this one by then. A solve of the old maze is dropped.
+    private void onMazeGenerated(BitPackedMaze generatedMaze, CompletableFuture<Void> request) {
+        submitPlayerUpdate(() -> {
+            if (request.isCancelled()) {
+                return;
             }
+            CompletableFuture<Void> solving = newestSolve.get();
+            if (solving != null) {
+                solving.cancel(true);
+            }
+            int startRow = generatedMaze.getStartPosition().getRowIndex();
+            int startCol = generatedMaze.getStartPosition().getColumnIndex();
+            player.set(pack(startRow, startCol)); // Before the maze, so whoever sees the new maze sees its position
+            maze = generatedMaze;
+            solution = null; // Clear any old solution
+            speculate(generatedMaze);
+            buildGoalField(generatedMaze);
+
+            events.publish(new ModelEvent.MazeGenerated(generatedMaze, startRow, startCol));
         });
     }
 
+    private void submitPlayerUpdate(Runnable update) {
+        playerUpdates.add(update);
+        if (playerUpdatesScheduled.compareAndSet(false, true)) {
+            try {
+                playerUpdateExecutor.execute(this::drainPlayerUpdates);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+    }
+
+    // One task drains everything queued so far, so a burst of key presses is not a task each
+    private void drainPlayerUpdates() {
+        do {
+            Runnable update;
+            while ((update = playerUpdates.poll()) != null) {
+                try {
+                    update.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Player update failed: " + e.getMessage());
+                    e.printStackTrace(); // Print full stack trace for debugging
+                }
+            }
+            playerUpdatesScheduled.set(false);
+        } while (!playerUpdates.isEmpty() && playerUpdatesScheduled.compareAndSet(false, true));
+    }
+
+    private static long pack(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static int rowOf(long position) {
+        return (int) (position >> 32);
+    }
+
+    private static int colOf(long position) {
+        return (int) position;
+    }
+
+    /**
+     * Turns speculative solving on or off. When on, every new maze is sent to the solve
+     * server in the background right away, so a later solveMaze() can answer at once.
+     */
+    @Override
+    public void setSpeculativeSolve(boolean enabled) {
+        speculativeSolve = enabled;
+        if (!enabled) {
+            cancelSpeculation();
+        } else if (maze != null) {
+            speculate(maze);
+        }
+    }
+
+    // Starts a background solve for the new maze, dropping the one for the maze it replaces
+    private void speculate(BitPackedMaze newMaze) {
+        cancelSpeculation();
+        if (!speculativeSolve || !binaryProtocol) {
+            return;
+        }
+        try {
+            speculation = new Speculation(newMaze, speculationExecutor.submit(() -> fetchSolutionBinary(newMaze)));
+        } catch (RejectedExecutionException e) {
+            speculation = null; // Shutting down
+        }
+    }
+
+    private void cancelSpeculation() {
+        Speculation previous = speculation;
+        speculation = null;
+        if (previous != null) {
+            previous.solution().cancel(true); // Never sent if still queued, otherwise stop waiting for the answer
+        }
+    }
+
+    // The speculative solution for this exact maze, waiting for it if needed; null if there is none
+    private Solution takeSpeculation(BitPackedMaze mazeToSolve) {
+        Speculation current = speculation;
+        if (current == null || current.maze() != mazeToSolve) {
+            return null;
+        }
+        try {
+            return current.solution().get();
+        } catch (ExecutionException | CancellationException e) {
+            System.err.println("Speculative solve failed, solving again: " + e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // Builds the new maze's distances to the goal in the background, or takes them from the solution cache.
+    // Skipped for mazes whose field would not fit the cache budget; getHint and getProgress then report unknown.
+    private void buildGoalField(BitPackedMaze newMaze) {
+        goalField = null;
+        try {
+            goalFieldExecutor.execute(() -> {
+                if (maze != newMaze) {
+                    return; // Replaced while queued
+                }
+                SolutionCache cache = solveStrategy.getSolutionCache();
+                long cells = (long) newMaze.getRows() * newMaze.getColumns();
+                if (GoalField.byteSizeOf((int) Math.min(cells, Integer.MAX_VALUE)) > cache.getMaxBytes()) {
+                    return; // Could not be cached anyway; hints and progress stay unknown for this maze
+                }
+                String key = SolutionCache.keyOf(newMaze);
+                SearchableIndexedMaze domain = new SearchableIndexedMaze(newMaze);
+                GoalField field = cache.getGoalField(key);
+                if (field == null) {
+                    try {
+                        field = GoalField.build(domain);
+                    } catch (CancellationException e) {
+                        return; // Shutting down
+                    } catch (OutOfMemoryError e) {
+                        System.err.println("Not enough memory for the goal field of a " + newMaze.getRows() + "x" + newMaze.getColumns() + " maze");
+                        return; // Hints and progress stay unknown
+                    }
+                    cache.putGoalField(key, field);
+                }
+                if (maze == newMaze) {
+                    goalField = new MazeGoalField(newMaze, domain, field);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    // The goal field of the maze currently shown; null while it is still being built.
+    // Read it before the player position: a position read afterwards is never older than its maze.
+    private MazeGoalField readyGoalField() {
+        MazeGoalField current = goalField;
+        return current != null && current.maze() == maze ? current : null;
+    }
+
+    /**
+     * The move that brings the player closest to the goal, without asking the solve server.
+     * @return The direction, or null at the goal or while the maze's goal field is being built.
+     */
+    @Override
+    public MovementDirection getHint() {
+        MazeGoalField current = readyGoalField();
+        long position = player.get();
+        if (current == null || distanceToGoal(current, position) <= 0) {
+            return null;
+        }
+        MovementDirection hint = null;
+        int best = Integer.MAX_VALUE;
+        for (MovementDirection direction : MovementDirection.values()) {
+            int row = rowOf(position) + (direction == MovementDirection.DOWN ? 1 : direction == MovementDirection.UP ? -1 : 0);
+            int col = colOf(position) + (direction == MovementDirection.RIGHT ? 1 : direction == MovementDirection.LEFT ? -1 : 0);
+            if (!isValidMove(current.maze(), row, col)) {
+                continue;
+            }
+            int distance = current.field().getDistance(row * current.maze().getColumns() + col);
+            if (distance != GoalField.UNREACHABLE && distance < best) {
+                best = distance; // A diagonal shortcut shows up as a straight move that keeps the distance
+                hint = direction;
+            }
+        }
+        return hint;
+    }
+
+    /**
+     * @return The number of steps left from the player to the goal, or -1 if it is not known yet.
+     */
+    @Override
+    public int getDistanceToGoal() {
+        MazeGoalField current = readyGoalField();
+        return current == null ? -1 : distanceToGoal(current, player.get());
+    }
+
+    // -1 also while the position still belongs to the previous maze
+    private static int distanceToGoal(MazeGoalField current, long position) {
+        int row = rowOf(position);
+        int col = colOf(position);
+        if (!isInside(current.maze(), row, col)) {
+            return -1;
+        }
+        return current.field().getDistance(row * current.maze().getColumns() + col);
+    }
+
+    /**
+     * @return How far the player is from the start towards the goal, from 0 to 1, or -1 if it is not known yet.
+     */
+    @Override
+    public double getProgress() {
+        MazeGoalField current = readyGoalField();
+        if (current == null) {
+            return -1;
+        }
+        int total = current.field().getDistance(current.domain().getStartIndex());
+        int left = distanceToGoal(current, player.get());
+        if (total == GoalField.UNREACHABLE || left == GoalField.UNREACHABLE) {
+            return -1;
+        }
+        return total == 0 ? 1 : Math.max(0, 1 - (double) left / total);
+    }
+
     @Override
     public Maze getMaze() {
         return maze;
     }
 
+    /**
+     * Queues a move. Moves from any thread are applied one at a time, in the order they
+     * were queued, by the player-updates thread, which is the only writer of the position.
+     */
     @Override
     public void updatePlayerLocation(MovementDirection direction) {
-        if (maze == null) {
+        submitPlayerUpdate(() -> applyMove(direction));
+    }
+
+    // Runs on the player-updates thread only
+    private void applyMove(MovementDirection direction) {
+        BitPackedMaze currentMaze = maze;
+        if (currentMaze == null) {
             System.out.println("Cannot move: Maze not generated.");
             return;
         }
 
-        int newRow = playerRow;
-        int newCol = playerCol;
+        long position = player.get();
+        int newRow = rowOf(position);
+        int newCol = colOf(position);
 
         switch (direction) {
             case UP -> newRow--;
@@ -131,78 +554,150 @@ public class MyModel extends Observable implements IModel {
         }
 
         // Check if the new position is valid
-        if (isValidMove(newRow, newCol)) {
-            playerRow = newRow;
-            playerCol = newCol;
-            setChanged();
-            notifyObservers("player moved");
+        if (isValidMove(currentMaze, newRow, newCol)) {
+            player.set(pack(newRow, newCol));
+            events.publish(new ModelEvent.PlayerMoved(newRow, newCol));
 
             // Check for maze completion
-            if (playerRow == maze.getGoalPosition().getRowIndex() && playerCol == maze.getGoalPosition().getColumnIndex()) {
-                setChanged();
-                notifyObservers("maze completed");
+            if (newRow == currentMaze.getGoalPosition().getRowIndex() && newCol == currentMaze.getGoalPosition().getColumnIndex()) {
+                events.publish(new ModelEvent.MazeCompleted(newRow, newCol));
             }
-        } else {
+        } else if (Log.DEBUG) {
             System.out.println("Invalid move attempt to R:" + newRow + ", C:" + newCol);
         }
     }
 
-    private boolean isValidMove(int row, int col) {
-        return row >= 0 && row < maze.getRows() &&
-                col >= 0 && col < maze.getColumns() &&
-                maze.getGrid()[row][col] == 0; // 0 means path, 1 means wall
+    private static boolean isValidMove(BitPackedMaze maze, int row, int col) {
+        return isInside(maze, row, col) &&
+                !maze.isWall(row, col); // Reads the packed bit, no int[][] is built
+    }
+
+    private static boolean isInside(BitPackedMaze maze, int row, int col) {
+        return row >= 0 && row < maze.getRows() && col >= 0 && col < maze.getColumns();
     }
 
     @Override
     public int getPlayerRow() {
-        return playerRow;
+        return rowOf(player.get());
     }
 
     @Override
     public int getPlayerCol() {
-        return playerCol;
+        return colOf(player.get());
     }
 
     @Override
-    public void solveMaze() {
+    public Position getPlayerPosition() {
+        long position = player.get();
+        return new Position(rowOf(position), colOf(position));
+    }
+
+    @Override
+    public CompletableFuture<Void> solveMaze() {
         if (maze == null) {
             System.out.println("Cannot solve: Maze not generated.");
-            return;
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        BitPackedMaze mazeToSolve = maze;
+        long position = player.get(); // Solve from where the player stands, not from the start
+        if (!isInside(mazeToSolve, rowOf(position), colOf(position))) {
+            // Already the position in the next maze, which is being switched to
+            position = pack(mazeToSolve.getStartPosition().getRowIndex(), mazeToSolve.getStartPosition().getColumnIndex());
         }
-        modelThreadPool.execute(() -> {
+        int fromRow = rowOf(position);
+        int fromCol = colOf(position);
+        boolean fromStart = fromRow == mazeToSolve.getStartPosition().getRowIndex() && fromCol == mazeToSolve.getStartPosition().getColumnIndex();
+        MazeGoalField field = readyGoalField();
+        if (field != null && field.maze() == mazeToSolve) {
+            // Read off the goal field, no round trip to the solve server
+            CompletableFuture<Void> request = supersede(newestSolve);
+            publishSolution(field.field().solutionFrom(field.domain(), fromRow * mazeToSolve.getColumns() + fromCol), mazeToSolve, start, request);
+            request.complete(null);
+            return request;
+        }
+        return submitNewest(newestSolve, request -> {
             try {
-                Client solveClient = new Client(InetAddress.getLocalHost(), SOLVE_SEARCH_PROBLEM_SERVER_PORT, new IClientStrategy() {
+                Solution speculated = fromStart ? takeSpeculation(mazeToSolve) : null;
+                if (speculated != null) {
+                    publishSolution(speculated, mazeToSolve, start, request);
+                    return;
+                }
+                if (binaryProtocol && solveMazeBinary(mazeToSolve, fromRow, fromCol, fromStart, start, request)) {
+                    return;
+                }
+                // Object-stream servers only solve from the maze's start position
+                channelTo(settings.solveSearchProblemServerPort()).communicateWithServer(new IClientStrategy() {
                     @Override
                     public void clientStrategy(InputStream inFromServer, OutputStream outToServer) {
                         try {
                             ObjectOutputStream objectOut = new ObjectOutputStream(outToServer);
-                            objectOut.writeObject(maze); // Send the maze to the server
+                            objectOut.writeObject(mazeToSolve); // Send the maze to the server
                             objectOut.flush();
 
                             ObjectInputStream objectIn = new ObjectInputStream(inFromServer);
-                            solution = (Solution) objectIn.readObject(); // Read the solution from the server
-                            setChanged();
-                            notifyObservers("maze solved");
+                            publishSolution((Solution) objectIn.readObject(), mazeToSolve, start, request); // Read the solution from the server
 
                         } catch (Exception e) {
-                            System.err.println("Client strategy for maze solving failed: " + e.getMessage());
-                            e.printStackTrace(); // Print full stack trace for debugging
-                            setChanged();
-                            notifyObservers("error");
+                            publishFailure(request, "Client strategy for maze solving failed: " + e.getMessage(), e);
                         }
                     }
                 });
-                solveClient.communicateWithServer();
             }
             catch (UnknownHostException e) {
-                System.err.println("Unknown host for solve search problem server: " + e.getMessage());
-                e.printStackTrace(); // Print full stack trace for debugging
-                setChanged();
-                notifyObservers("error");
+                publishFailure(request, "Unknown host for solve search problem server: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    // Returns false if the server does not speak the binary protocol, so the caller can fall back
+    private boolean solveMazeBinary(BitPackedMaze mazeToSolve, int fromRow, int fromCol, boolean fromStart, long start, CompletableFuture<Void> request) {
+        try {
+            Solution solved = fromStart ? fetchSolutionBinary(mazeToSolve) : fetchSolutionFromBinary(mazeToSolve, fromRow, fromCol);
+            if (solved == null) {
+                return false;
+            }
+            publishSolution(solved, mazeToSolve, start, request);
+        } catch (IOException e) {
+            publishFailure(request, "Binary maze solving request failed: " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    // Shows the solution on the player-updates thread, in order with maze switches, so it is dropped
+    // if a newer solve or a new maze superseded the request by then
+    private void publishSolution(Solution solved, BitPackedMaze solvedMaze, long start, CompletableFuture<Void> request) {
+        submitPlayerUpdate(() -> {
+            if (request.isCancelled() || maze != solvedMaze) {
+                return;
             }
+            solution = solved;
+            SOLVE_TIME.recordSince(start);
+            events.publish(new ModelEvent.MazeSolved(solved));
         });
     }
 
+    // Solves one maze over the binary protocol; null if the server only speaks object streams
+    private Solution fetchSolutionBinary(BitPackedMaze mazeToSolve) throws IOException {
+        return requestSolutionBinary(MazeProtocol.frame(MazeProtocol.SOLVE_REQUEST, MazeProtocol.compressMaze(mazeToSolve)), mazeToSolve);
+    }
+
+    // Solves from (row, col); the server reuses its search tree for this maze across calls
+    private Solution fetchSolutionFromBinary(BitPackedMaze mazeToSolve, int row, int col) throws IOException {
+        return requestSolutionBinary(MazeProtocol.solveFromRequest(mazeToSolve, row, col), mazeToSolve);
+    }
+
+    private Solution requestSolutionBinary(byte[] request, BitPackedMaze mazeToSolve) throws IOException {
+        byte[] response = channelTo(settings.solveSearchProblemServerPort()).request(request);
+        if (!MazeProtocol.isFrame(response)) {
+            System.out.println("Solve server does not support the binary protocol, using object streams.");
+            binaryProtocol = false;
+            return null;
+        }
+        byte[] packedPath = MazeProtocol.readResponse(response, MazeProtocol.SOLVE_RESPONSE);
+        return MazeProtocol.decodeSolution(packedPath, mazeToSolve.getColumns());
+    }
+
     @Override
     public Solution getSolution() {
         return solution;
@@ -210,9 +705,10 @@ public class MyModel extends Observable implements IModel {
 
     @Override
     public void clearSolution() {
-        this.solution = null;
-        setChanged();
-        notifyObservers("solution cleared");
+        submitPlayerUpdate(() -> { // After any solution still being handed over
+            solution = null;
+            events.publish(new ModelEvent.SolutionCleared());
+        });
     }
 
     @Override
@@ -227,37 +723,57 @@ public class MyModel extends Observable implements IModel {
         } catch (IOException e) {
             System.err.println("Failed to save maze: " + e.getMessage());
             e.printStackTrace(); // Print full stack trace for debugging
-            setChanged();
-            notifyObservers("error");
+            events.publish(new ModelEvent.Failed("Failed to save maze: " + e.getMessage()));
         }
     }
 
     @Override
     public void loadMaze(String filePath) {
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
-            maze = (Maze) ois.readObject();
-            playerRow = maze.getStartPosition().getRowIndex();
-            playerCol = maze.getStartPosition().getColumnIndex();
-            solution = null; // Clear any old solution
-            setChanged();
-            notifyObservers("maze generated"); // Notify as if a new maze was generated
+            BitPackedMaze loaded = BitPackedMaze.of((Maze) ois.readObject()); // Older saves hold a plain Maze
             System.out.println("Maze loaded from " + filePath);
+            CompletableFuture<Void> request = supersede(newestGenerate); // A generate still running would replace it
+            onMazeGenerated(loaded, request); // Notify as if a new maze was generated
+            request.complete(null);
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Failed to load maze: " + e.getMessage());
             e.printStackTrace(); // Print full stack trace for debugging
-            setChanged();
-            notifyObservers("error");
+            events.publish(new ModelEvent.Failed("Failed to load maze: " + e.getMessage()));
         }
     }
 
+    @Override
+    public Map<String, String> getSettings() {
+        return settings.toMap();
+    }
+
+    @Override
+    public File getSettingsFile() {
+        return RuntimeConfiguration.getInstance().getFile();
+    }
+
     @Override
     public void stopServers() {
         System.out.println("Stopping servers...");
-        if (mazeGeneratingServer != null) {
-            mazeGeneratingServer.stop();
-        }
-        if (solveSearchProblemServer != null) {
-            solveSearchProblemServer.stop();
+        stopped = true;
+        RuntimeConfiguration.getInstance().removeListener(settingsListener);
+        RuntimeConfiguration.getInstance().stopWatching();
+        mazePool.shutdown();
+        System.out.println("Maze pool: " + mazePool);
+        cancelSpeculation();
+        speculationExecutor.shutdownNow();
+        playerUpdateExecutor.shutdownNow();
+        goalFieldExecutor.shutdownNow();
+        synchronized (this) { // Not while a settings change is restarting the servers
+            serverChannels.values().forEach(MultiplexedClient::close);
+            serverChannels.clear();
+            if (mazeGeneratingServer != null) {
+                mazeGeneratingServer.stop();
+            }
+            if (solveSearchProblemServer != null) {
+                solveSearchProblemServer.stop();
+                System.out.println("Solution cache: " + solveStrategy.getSolutionCache());
+            }
         }
         if (modelThreadPool != null) {
             modelThreadPool.shutdown();
@@ -273,14 +789,8 @@ public class MyModel extends Observable implements IModel {
                 e.printStackTrace(); // Print full stack trace for debugging
             }
         }
+        MetricsRegistry.getInstance().stopDumping();
+        System.out.println("Metrics written to " + METRICS_DUMP_FILE);
         System.out.println("Servers and thread pool stopped.");
     }
-
-    @Override
-    public void update(Observable o, Object arg) {
-        // This method is called when the Model changes.
-        // Forward the notification to the View.
-        setChanged();
-        notifyObservers(arg);
-    }
 }
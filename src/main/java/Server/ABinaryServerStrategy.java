@@ -0,0 +1,57 @@
+package Server;
+
+import IO.MazeProtocol;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Base for strategies that speak the MazeProtocol binary frames and still serve
+ * clients that use plain object streams. The encoding is picked per connection
+ * from the first two bytes the client sends.
+ */
+public abstract class ABinaryServerStrategy implements IServerStrategy {
+
+    @Override
+    public void serverStrategy(InputStream inFromClient, OutputStream outToClient) {
+        try {
+            PushbackInputStream in = new PushbackInputStream(inFromClient, 2);
+            int first = in.read();
+            int second = in.read();
+            if (second == -1) {
+                return; // Client sent nothing
+            }
+            in.unread(second);
+            in.unread(first);
+
+            if (((first << 8) | second) != MazeProtocol.MAGIC) {
+                handleObjectStream(in, outToClient);
+                return;
+            }
+
+            try {
+                MazeProtocol.Frame request = MazeProtocol.readFrame(in);
+                handleFrame(request, outToClient);
+            } catch (InterruptedIOException | CancellationException e) {
+                System.err.println("Request cancelled: " + e.getMessage()); // Past its deadline, cancelled or its client left; nobody reads the answer
+            } catch (Exception e) {
+                e.printStackTrace();
+                String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                MazeProtocol.writeFrame(outToClient, MazeProtocol.ERROR, message.getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Handles one binary request and writes the response frame.
+     */
+    protected abstract void handleFrame(MazeProtocol.Frame request, OutputStream outToClient) throws Exception;
+
+    /**
+     * Handles a client that uses Java object streams (the original protocol).
+     */
+    protected abstract void handleObjectStream(InputStream inFromClient, OutputStream outToClient) throws Exception;
+}
@@ -0,0 +1,261 @@
+package Server;
+
+import IO.MazeProtocol;
+import Metrics.MetricsRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the work handed to the request pool within a budget of maze cells, the rows x cols
+ * of each request (see MazeProtocol#requestCells), since that is what a generate or solve
+ * holds in memory. A request that fits the budget runs at once; otherwise it waits in a
+ * FIFO queue, itself bounded in cells. A request that fits neither, or is larger than the
+ * whole budget, is answered right away with a REJECTED frame. So is one that passes its
+ * deadline: while queued it is dropped, while running its thread is interrupted and the
+ * result, if any, thrown away. Its cells are only released once the work actually stops.
+ * Requests of a client that disconnects, or that the client cancels, are dropped or
+ * interrupted the same way, without an answer.
+ */
+public class AdmissionControl {
+
+    private enum State { QUEUED, RUNNING, FINISHED }
+
+    private final Executor pool;
+    private final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "request-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ArrayDeque<Request> queue = new ArrayDeque<>();
+    private long maxInFlightCells;
+    private long maxQueuedCells;
+    private long deadlineMillis;
+    private long inFlightCells;
+    private long queuedCells;
+
+    private final MetricsRegistry.Counter rejected = MetricsRegistry.getInstance().counter("admission.rejected");
+    private final MetricsRegistry.Counter timedOut = MetricsRegistry.getInstance().counter("admission.timedOut");
+    private final MetricsRegistry.Counter dropped = MetricsRegistry.getInstance().counter("admission.dropped");
+
+    /**
+     * One submitted request. Its callback gets exactly one payload, the response or a
+     * REJECTED frame, unless the request is cancelled first.
+     */
+    public final class Request {
+        private final IServerStrategy strategy;
+        private final byte[] payload;
+        private final long cells;
+        private final Consumer<byte[]> respond;
+        private final AtomicBoolean done = new AtomicBoolean(); // Answered or cancelled
+        private State state;
+        private Thread worker; // Set while the strategy runs
+        private ScheduledFuture<?> deadline;
+
+        private Request(IServerStrategy strategy, byte[] payload, long cells, Consumer<byte[]> respond) {
+            this.strategy = strategy;
+            this.payload = payload;
+            this.cells = cells;
+            this.respond = respond;
+        }
+
+        /**
+         * Drops the request without answering it, e.g. because its client is gone or no longer wants it.
+         */
+        public void cancel() {
+            if (done.compareAndSet(false, true)) {
+                dropped.increment();
+                abandon(this);
+            }
+        }
+
+        public boolean isDone() {
+            return done.get();
+        }
+
+        private void answer(byte[] response) {
+            if (done.compareAndSet(false, true)) {
+                respond.accept(response);
+            }
+        }
+
+        private void reject(String message) {
+            answer(MazeProtocol.frame(MazeProtocol.REJECTED, message.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    public AdmissionControl(Executor pool, long maxInFlightCells, long maxQueuedCells, long deadlineMillis) {
+        this.pool = pool;
+        setLimits(maxInFlightCells, maxQueuedCells, deadlineMillis);
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("admission.inFlightCells", this::getInFlightCells);
+        metrics.gauge("admission.queuedCells", this::getQueuedCells);
+    }
+
+    /**
+     * Changes the limits. Requests already admitted keep running; a larger budget admits queued ones at once.
+     */
+    public void setLimits(long maxInFlightCells, long maxQueuedCells, long deadlineMillis) {
+        List<Request> refused;
+        synchronized (this) {
+            this.maxInFlightCells = maxInFlightCells;
+            this.maxQueuedCells = maxQueuedCells;
+            this.deadlineMillis = deadlineMillis;
+            refused = admitQueued();
+        }
+        refused.forEach(request -> request.reject("Server is shutting down"));
+    }
+
+    /**
+     * Runs the strategy on the request payload once its cells fit in the budget.
+     * @param respond Gets the response payload, or a REJECTED frame; called on a pool or deadline thread.
+     * @return The request, to cancel it if its client goes away.
+     */
+    public Request submit(IServerStrategy strategy, byte[] payload, Consumer<byte[]> respond) {
+        long cells = MazeProtocol.requestCells(payload);
+        Request request = new Request(strategy, payload, cells < 0 ? payload.length : Math.max(1, cells), respond);
+        String rejection = null;
+        synchronized (this) {
+            if (request.cells > maxInFlightCells) {
+                rejection = "Request too large: " + request.cells + " cells, the limit is " + maxInFlightCells;
+            } else if (queue.isEmpty() && inFlightCells + request.cells <= maxInFlightCells) {
+                if (!start(request)) {
+                    rejection = "Server is shutting down";
+                }
+            } else if (queuedCells + request.cells <= maxQueuedCells) {
+                request.state = State.QUEUED;
+                queue.add(request);
+                queuedCells += request.cells;
+            } else {
+                rejection = "Server busy: " + inFlightCells + " cells in flight and " + queuedCells + " queued";
+            }
+            if (rejection == null) {
+                request.deadline = deadlines.schedule(() -> expire(request), deadlineMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (rejection != null) {
+            rejected.increment();
+            request.reject(rejection);
+        }
+        return request;
+    }
+
+    // Called with the lock held; false if the pool is shut down
+    private boolean start(Request request) {
+        inFlightCells += request.cells;
+        request.state = State.RUNNING;
+        try {
+            pool.execute(() -> run(request));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlightCells -= request.cells;
+            request.state = State.FINISHED;
+            return false;
+        }
+    }
+
+    private void run(Request request) {
+        List<Request> refused = null;
+        synchronized (this) {
+            if (request.isDone()) {
+                refused = finish(request); // Cancelled or expired before it got a thread
+            } else {
+                request.worker = Thread.currentThread();
+            }
+        }
+        if (refused != null) {
+            refused.forEach(next -> next.reject("Server is shutting down"));
+            return;
+        }
+        byte[] response = null;
+        try {
+            response = ServerStrategyMultiplexed.respond(request.strategy, request.payload);
+        } catch (Throwable e) {
+            // The strategy turns exceptions into ERROR frames itself; this is an Error, e.g. out of memory.
+            // Answer anyway, or the client would wait for this request forever.
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            request.answer(MazeProtocol.frame(MazeProtocol.ERROR, message.getBytes(StandardCharsets.UTF_8)));
+            throw e;
+        } finally {
+            synchronized (this) {
+                request.worker = null;
+                Thread.interrupted(); // An interrupt meant for this request must not hit the next one
+                refused = finish(request);
+            }
+            refused.forEach(next -> next.reject("Server is shutting down"));
+        }
+        request.answer(response);
+    }
+
+    // Called with the lock held; returns the queued requests that could not be started
+    private List<Request> finish(Request request) {
+        request.state = State.FINISHED;
+        inFlightCells -= request.cells;
+        if (request.deadline != null) {
+            request.deadline.cancel(false);
+        }
+        return admitQueued();
+    }
+
+    // Called with the lock held; starts queued requests in order while they fit
+    private List<Request> admitQueued() {
+        List<Request> refused = new ArrayList<>();
+        while (!queue.isEmpty() && inFlightCells + queue.peek().cells <= maxInFlightCells) {
+            Request next = queue.poll();
+            queuedCells -= next.cells;
+            if (!start(next)) {
+                refused.add(next);
+            }
+        }
+        return refused;
+    }
+
+    private void expire(Request request) {
+        String message;
+        synchronized (this) {
+            if (request.state == State.FINISHED || request.isDone()) {
+                return;
+            }
+            message = "Deadline of " + deadlineMillis + " ms passed while "
+                    + (request.state == State.QUEUED ? "queued" : "running");
+        }
+        timedOut.increment();
+        request.reject(message); // Marks it done first, so abandon sees it like a cancelled one
+        abandon(request);
+    }
+
+    // Takes a request that will not be answered out of the queue, or interrupts its work
+    private void abandon(Request request) {
+        List<Request> refused = List.of();
+        synchronized (this) {
+            if (request.state == State.QUEUED) {
+                queue.remove(request);
+                queuedCells -= request.cells;
+                request.state = State.FINISHED;
+                request.deadline.cancel(false);
+                refused = admitQueued(); // A large request at the head may have held back smaller ones
+            } else if (request.state == State.RUNNING && request.worker != null) {
+                request.worker.interrupt();
+            }
+        }
+        refused.forEach(next -> next.reject("Server is shutting down"));
+    }
+
+    public synchronized long getInFlightCells() {
+        return inFlightCells;
+    }
+
+    public synchronized long getQueuedCells() {
+        return queuedCells;
+    }
+}
@@ -0,0 +1,47 @@
+package Server;
+
+/**
+ * A server that can be started and stopped, whatever engine runs it.
+ */
+public interface IServer {
+
+    /**
+     * Starts accepting clients in the background.
+     */
+    void start();
+
+    /**
+     * Stops accepting clients.
+     */
+    void stop();
+
+    /**
+     * Serves a strategy over multiplexed channels (see ServerStrategyMultiplexed) on the chosen engine.
+     * Whatever the engine, requests run on the bounded request pool sized by the threadPoolSize setting.
+     * @param engine "virtual" for a virtual thread per connection, "nio" for a single selector thread,
+     *               anything else for the original Server with its blocking accept loop.
+     * @param port The port to listen on.
+     * @param listeningIntervalMs How often the blocking engine checks whether to stop; the others stop at once.
+     * @param strategy Serves one request.
+     */
+    static IServer multiplexed(String engine, int port, int listeningIntervalMs, IServerStrategy strategy) {
+        return switch (engine) {
+            case "virtual" -> new VirtualThreadServer(port, new ServerStrategyMultiplexed(strategy));
+            case "nio" -> new NioServer(port, strategy);
+            default -> {
+                Server server = new Server(port, listeningIntervalMs, new ServerStrategyMultiplexed(strategy));
+                yield new IServer() {
+                    @Override
+                    public void start() {
+                        server.start();
+                    }
+
+                    @Override
+                    public void stop() {
+                        server.stop();
+                    }
+                };
+            }
+        };
+    }
+}
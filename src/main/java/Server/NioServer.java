@@ -0,0 +1,253 @@
+package Server;
+
+import IO.MazeProtocol;
+import Metrics.Log;
+import Metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the ServerStrategyMultiplexed framing, [int requestId][int length][payload] both
+ * ways, from one selector thread for all connections. The thread only moves bytes: each
+ * complete request goes through the AdmissionControl shared with ServerStrategyMultiplexed
+ * to its bounded request pool, which runs the strategy on the payload, and the response
+ * frame is queued back to the selector to be written. An idle client costs a socket and a
+ * few buffers, no thread. When a client closes the connection, its requests still queued
+ * or running are cancelled, as is a single one the client names in a CANCEL_REQUEST frame.
+ */
+public class NioServer implements IServer {
+
+    private static final int BACKLOG = 1024; // Connections the OS queues before accept
+    private static final int HEADER_BYTES = 8;
+
+    private final int port;
+    private final IServerStrategy strategy;
+    private final Queue<Connection> writable = new ConcurrentLinkedQueue<>(); // Got responses since the last select
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private volatile boolean stop;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread loop;
+
+    // One client and the frame being read from it; touched only by the selector thread except for responses
+    private final class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        ByteBuffer payload; // Null while reading the header
+        int requestId;
+        final Queue<ByteBuffer> responses = new ConcurrentLinkedQueue<>();
+        final Map<Integer, AdmissionControl.Request> requests = new HashMap<>(); // By id; pruned of the answered ones as new ones come
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    /**
+     * @param strategy Serves one request payload; not wrapped in ServerStrategyMultiplexed.
+     */
+    public NioServer(int port, IServerStrategy strategy) {
+        this.port = port;
+        this.strategy = strategy;
+        MetricsRegistry.getInstance().gauge("server." + port + ".connections", connectionCount::get);
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port), BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeQuietly();
+            return;
+        }
+        System.out.println("Server started at port " + port + " with a selector");
+        loop = new Thread(this::runLoop, "nio-server-" + port);
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    private void runLoop() {
+        try {
+            while (!stop) {
+                selector.select();
+                for (Connection connection; (connection = writable.poll()) != null; ) {
+                    if (connection.key.isValid()) {
+                        connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(connection);
+                        }
+                    } catch (IOException e) {
+                        System.err.println("Connection on port " + port + " failed: " + e.getMessage());
+                        close(connection);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+            connectionCount.incrementAndGet();
+            if (Log.DEBUG) {
+                System.out.println("Client connected: " + channel);
+            }
+        }
+    }
+
+    // Reads whatever is available, dispatching every frame it completes
+    private void read(Connection connection) throws IOException {
+        while (true) {
+            ByteBuffer target = connection.payload != null ? connection.payload : connection.header;
+            int read = connection.channel.read(target);
+            if (read < 0) {
+                close(connection); // Client is gone
+                return;
+            }
+            if (target.hasRemaining()) {
+                return; // Nothing more for now
+            }
+            if (connection.payload == null) {
+                connection.header.flip();
+                connection.requestId = connection.header.getInt();
+                int length = ServerStrategyMultiplexed.checkFrameLength(connection.header.getInt());
+                connection.header.clear();
+                connection.payload = ByteBuffer.allocate(length);
+                if (length > 0) {
+                    continue;
+                }
+            }
+            dispatch(connection, connection.requestId, connection.payload.array());
+            connection.payload = null;
+        }
+    }
+
+    private void dispatch(Connection connection, int requestId, byte[] request) {
+        connection.requests.values().removeIf(AdmissionControl.Request::isDone);
+        if (MazeProtocol.isCancel(request)) {
+            AdmissionControl.Request cancelled = connection.requests.remove(requestId);
+            if (cancelled != null) {
+                cancelled.cancel();
+            }
+            return;
+        }
+        connection.requests.put(requestId, ServerStrategyMultiplexed.admission.submit(strategy, request, response -> {
+            ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + response.length);
+            frame.putInt(requestId).putInt(response.length).put(response).flip();
+            connection.responses.add(frame);
+            writable.add(connection);
+            selector.wakeup();
+        }));
+    }
+
+    private void write(Connection connection) throws IOException {
+        ByteBuffer frame;
+        while ((frame = connection.responses.peek()) != null) {
+            connection.channel.write(frame);
+            if (frame.hasRemaining()) {
+                return; // Socket buffer full; wait for the next OP_WRITE
+            }
+            connection.responses.poll();
+        }
+        connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_WRITE);
+    }
+
+    private void close(Connection connection) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        connectionCount.decrementAndGet();
+        connection.requests.values().forEach(AdmissionControl.Request::cancel);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+
+    // Called on the selector thread, or from start() before it exists
+    private void closeQuietly() {
+        try {
+            if (selector != null) {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection connection) {
+                        close(connection);
+                    }
+                }
+                selector.close();
+            }
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stops the selector thread and closes every connection; the port is free once this returns.
+     */
+    @Override
+    public void stop() {
+        Thread running;
+        synchronized (this) {
+            stop = true;
+            running = loop;
+            if (selector != null) {
+                selector.wakeup();
+            }
+        }
+        if (running == null || running == Thread.currentThread()) {
+            return;
+        }
+        try {
+            running.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package Server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The current Settings of the process, reloaded whenever the settings file changes.
+ * The config.properties on the classpath gives the base values and the settings file,
+ * named by the maze.config system property or else config.properties in the working
+ * directory, overrides them key by key. The file need not exist; creating it later
+ * is picked up like any other change.
+ * Listeners hear about each new Settings on the watcher thread and apply what they own
+ * (pool sizes, cache budgets, ports); values read per request, such as the algorithm
+ * names, just take effect on the next request. A file that fails to parse is reported
+ * and the previous settings stay in force.
+ */
+public final class RuntimeConfiguration {
+
+    private static final String RESOURCE = "config.properties";
+    private static final long SETTLE_MILLIS = 200; // Editors often write a file in several steps
+    private static final RuntimeConfiguration INSTANCE = new RuntimeConfiguration();
+
+    private final File file;
+    private final List<Consumer<Settings>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Settings current;
+    private WatchService watchService;
+    private Thread watcher;
+
+    private RuntimeConfiguration() {
+        file = new File(System.getProperty("maze.config", RESOURCE)).getAbsoluteFile();
+        Settings loaded;
+        try {
+            loaded = load();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Invalid settings, using the defaults: " + e.getMessage());
+            loaded = Settings.DEFAULTS;
+        }
+        current = loaded;
+    }
+
+    public static RuntimeConfiguration getInstance() {
+        return INSTANCE;
+    }
+
+    public Settings get() {
+        return current;
+    }
+
+    /**
+     * @return The settings file that is watched, whether or not it exists.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Calls the listener with every Settings loaded from now on.
+     */
+    public void addListener(Consumer<Settings> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Settings> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Reads the settings again and tells the listeners if anything changed.
+     * @return Whether the new settings were taken; false if they failed to parse or were unchanged.
+     */
+    public synchronized boolean reload() {
+        Settings loaded;
+        try {
+            loaded = load();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Keeping the previous settings, " + file + " is invalid: " + e.getMessage());
+            return false;
+        }
+        if (loaded.equals(current)) {
+            return false;
+        }
+        current = loaded;
+        System.out.println("Settings reloaded from " + file);
+        for (Consumer<Settings> listener : listeners) {
+            try {
+                listener.accept(loaded);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        return true;
+    }
+
+    private Settings load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = RuntimeConfiguration.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input != null) {
+                properties.load(input);
+            }
+        }
+        if (file.isFile()) {
+            try (Reader input = Files.newBufferedReader(file.toPath(), StandardCharsets.ISO_8859_1)) {
+                properties.load(input);
+            }
+        }
+        return Settings.fromProperties(properties);
+    }
+
+    /**
+     * Starts watching the settings file on a daemon thread. Does nothing if already watching.
+     */
+    public synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        Path directory = file.getParentFile().toPath();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            System.err.println("Cannot watch " + directory + " for settings changes: " + e.getMessage());
+            return;
+        }
+        WatchService service = watchService;
+        watcher = new Thread(() -> watch(service), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public synchronized void stopWatching() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close(); // Wakes the watcher, which then ends
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        watcher = null;
+        watchService = null;
+    }
+
+    private void watch(WatchService service) {
+        Path name = file.toPath().getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = concerns(key, name);
+                // Let a burst of writes settle, then reload once
+                while (changed && (key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    concerns(key, name);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    // Whether any of the key's events is about the settings file; resets the key
+    private static boolean concerns(WatchKey key, Path name) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (name.equals(event.context())) {
+                found = true;
+            }
+        }
+        key.reset();
+        return found;
+    }
+
+    /**
+     * Resizes a fixed-size pool in place. Queued tasks stay queued; extra threads end
+     * once they finish what they are running.
+     */
+    public static void resize(ThreadPoolExecutor pool, int size) {
+        if (size > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(size); // The maximum may never drop below the core size
+            pool.setCorePoolSize(size);
+        } else {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package Server;
+
+import IO.MazeProtocol;
+import IO.RunLengthOutputStream;
+import Metrics.Histogram;
+import Metrics.MetricsRegistry;
+import algorithms.mazeGenerators.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * Generates mazes over the MazeProtocol binary frames, falling back to the
+ * original object-stream exchange (int[] in, compressed byte[] out).
+ * Given a SolutionCache, mazes whose generator recorded their solution while
+ * carving are put in it, so solving them later needs no search.
+ */
+public class ServerStrategyGenerateMazeBinary extends ABinaryServerStrategy {
+
+    private static final Histogram GENERATE_TIME = MetricsRegistry.getInstance().histogram("server.generate.nanos");
+
+    private final SolutionCache solutionCache;
+
+    public ServerStrategyGenerateMazeBinary() {
+        this(null);
+    }
+
+    public ServerStrategyGenerateMazeBinary(SolutionCache solutionCache) {
+        this.solutionCache = solutionCache;
+    }
+
+    @Override
+    protected void handleFrame(MazeProtocol.Frame request, OutputStream outToClient) throws Exception {
+        if (request.type() != MazeProtocol.GENERATE_REQUEST) {
+            throw new IOException("Unexpected request type " + request.type());
+        }
+        ByteBuffer dimensions = ByteBuffer.wrap(request.payload());
+        byte[] compressedMaze = generateCompressed(dimensions.getInt(), dimensions.getInt());
+        MazeProtocol.writeFrame(outToClient, MazeProtocol.GENERATE_RESPONSE, compressedMaze);
+    }
+
+    @Override
+    protected void handleObjectStream(InputStream inFromClient, OutputStream outToClient) throws Exception {
+        ObjectInputStream fromClient = new ObjectInputStream(inFromClient);
+        ObjectOutputStream toClient = new ObjectOutputStream(outToClient);
+        int[] dimensions = (int[]) fromClient.readObject();
+        toClient.writeObject(generateCompressed(dimensions[0], dimensions[1]));
+        toClient.flush();
+    }
+
+    private byte[] generateCompressed(int rows, int cols) throws IOException {
+        IMazeGenerator generator = createGenerator();
+        long start = System.nanoTime();
+        if (generator instanceof EllerMazeGenerator eller) {
+            // Rows go straight into the RLE encoder; no Maze or uncompressed grid is built
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (RunLengthOutputStream compressor = new RunLengthOutputStream(compressed)) {
+                eller.writeTo(rows, cols, compressor);
+            }
+            GENERATE_TIME.recordSince(start); // Compression included, it cannot be told apart here
+            return compressed.toByteArray();
+        }
+        Maze maze = generator.generate(rows, cols);
+        GENERATE_TIME.recordSince(start);
+        byte[] mazeBytes = maze.toByteArray();
+        if (solutionCache != null && generator instanceof DepthFirstMazeGenerator recorder) {
+            solutionCache.put(SolutionCache.keyOf(mazeBytes), MazeProtocol.encodeSolution(recorder.getSolutionPath()));
+        }
+        return MazeProtocol.compressMazeBytes(mazeBytes);
+    }
+
+    private IMazeGenerator createGenerator() {
+        return switch (RuntimeConfiguration.getInstance().get().mazeGeneratingAlgorithm()) {
+            case "SimpleMazeGenerator" -> new SimpleMazeGenerator();
+            case "EmptyMazeGenerator" -> new EmptyMazeGenerator();
+            case "ParallelMazeGenerator" -> new ParallelMazeGenerator();
+            case "EllerMazeGenerator" -> new EllerMazeGenerator();
+            case "DepthFirstMazeGenerator" -> new DepthFirstMazeGenerator();
+            default -> new MyMazeGenerator();
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package Server;
+
+import IO.MazeProtocol;
+import Metrics.Histogram;
+import Metrics.MetricsRegistry;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Keeps one client connection open and serves many requests over it.
+ * Every request and response is a frame: [int requestId][int length][payload].
+ * Each request payload is handed to the wrapped strategy as if it were a fresh
+ * connection, and the response is written back tagged with the same id, so
+ * responses may come back in any order.
+ * Requests go through AdmissionControl, so some are answered with a REJECTED frame
+ * instead. When the client closes the channel, its requests that are still queued or
+ * running are cancelled; nobody is left to read their responses. A client can also cancel
+ * one request by sending a MazeProtocol CANCEL_REQUEST frame under its id.
+ */
+public class ServerStrategyMultiplexed implements IServerStrategy {
+
+    // The bounded compute pool of every engine: sized by the threadPoolSize setting, and resized in place when it changes
+    static final ThreadPoolExecutor requestPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(
+            RuntimeConfiguration.getInstance().get().threadPoolSize(), runnable -> {
+                Thread thread = new Thread(runnable, "multiplexed-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+    // Every engine submits its requests here rather than to the pool directly
+    static final AdmissionControl admission = createAdmissionControl();
+    private static final Histogram REQUEST_TIME = MetricsRegistry.getInstance().histogram("server.request.nanos");
+
+    static {
+        MetricsRegistry.getInstance().gauge("server.requestQueue.depth", () -> requestPool.getQueue().size());
+        MetricsRegistry.getInstance().gauge("server.requestPool.active", requestPool::getActiveCount);
+        RuntimeConfiguration.getInstance().addListener(settings -> {
+            RuntimeConfiguration.resize(requestPool, settings.threadPoolSize());
+            admission.setLimits(settings.maxInFlightCells(), settings.maxQueuedCells(), settings.requestDeadlineMs());
+        });
+    }
+
+    private static AdmissionControl createAdmissionControl() {
+        Settings settings = RuntimeConfiguration.getInstance().get();
+        return new AdmissionControl(requestPool, settings.maxInFlightCells(), settings.maxQueuedCells(), settings.requestDeadlineMs());
+    }
+
+    private final IServerStrategy strategy;
+
+    public ServerStrategyMultiplexed(IServerStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void serverStrategy(InputStream inFromClient, OutputStream outToClient) {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inFromClient));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outToClient));
+        Map<Integer, AdmissionControl.Request> inFlight = new HashMap<>();
+
+        try {
+            while (true) {
+                int requestId;
+                try {
+                    requestId = in.readInt();
+                } catch (EOFException e) {
+                    break; // Client closed the channel
+                }
+                byte[] request = new byte[checkFrameLength(in.readInt())];
+                in.readFully(request);
+
+                inFlight.values().removeIf(AdmissionControl.Request::isDone);
+                if (MazeProtocol.isCancel(request)) {
+                    AdmissionControl.Request cancelled = inFlight.remove(requestId);
+                    if (cancelled != null) {
+                        cancelled.cancel();
+                    }
+                    continue;
+                }
+                inFlight.put(requestId, admission.submit(strategy, request, response -> sendResponse(requestId, response, out)));
+            }
+        } catch (IOException e) {
+            System.err.println("Multiplexed channel closed: " + e.getMessage());
+        }
+
+        inFlight.values().forEach(AdmissionControl.Request::cancel);
+    }
+
+    /**
+     * Checks a request frame length before anything is allocated for it, since the cell
+     * budget only applies once the whole frame is read.
+     * @return The length.
+     * @throws IOException If it is negative or over the maxFrameBytes setting; the connection is then closed.
+     */
+    static int checkFrameLength(int length) throws IOException {
+        int maxFrameBytes = RuntimeConfiguration.getInstance().get().maxFrameBytes();
+        if (length < 0 || length > maxFrameBytes) {
+            throw new IOException("Frame length " + length + " is outside 0.." + maxFrameBytes);
+        }
+        return length;
+    }
+
+    private void sendResponse(int requestId, byte[] response, DataOutputStream out) {
+        try {
+            synchronized (out) {
+                out.writeInt(requestId);
+                out.writeInt(response.length);
+                out.write(response);
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to send response " + requestId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the strategy on one request payload as if it were a fresh connection.
+     * @return The response payload.
+     */
+    static byte[] respond(IServerStrategy strategy, byte[] request) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        strategy.serverStrategy(new ByteArrayInputStream(request), response);
+        REQUEST_TIME.recordSince(start);
+        return response.toByteArray();
+    }
+}
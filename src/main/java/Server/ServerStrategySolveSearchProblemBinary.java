@@ -0,0 +1,137 @@
+package Server;
+
+import IO.MazeProtocol;
+import Metrics.Histogram;
+import Metrics.MetricsRegistry;
+import algorithms.mazeGenerators.BitPackedMaze;
+import algorithms.mazeGenerators.Maze;
+import algorithms.search.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Solves mazes over the MazeProtocol binary frames, falling back to the
+ * original object-stream exchange (Maze in, Solution out).
+ * Solutions are cached in memory (SolutionCache) in front of the on-disk cache
+ * under java.io.tmpdir, which uses the same files as ServerStrategySolveSearchProblem.
+ * Solves from any other cell (SOLVE_FROM_REQUEST) walk the maze's GoalField, its distances
+ * to the goal, which is kept in the same SolutionCache entry so a player moving through the
+ * same maze is re-solved in O(path length).
+ */
+public class ServerStrategySolveSearchProblemBinary extends ABinaryServerStrategy {
+
+    private static final Histogram SEARCH_TIME = MetricsRegistry.getInstance().histogram("server.search.nanos");
+    private static final Histogram SEARCH_NODES = MetricsRegistry.getInstance().histogram("server.search.nodes");
+    private static final Histogram GOAL_FIELD_TIME = MetricsRegistry.getInstance().histogram("server.goalField.nanos");
+
+    private final SolutionCache memoryCache;
+
+    public ServerStrategySolveSearchProblemBinary() {
+        this(new SolutionCache());
+    }
+
+    public ServerStrategySolveSearchProblemBinary(SolutionCache memoryCache) {
+        this.memoryCache = memoryCache;
+    }
+
+    public SolutionCache getSolutionCache() {
+        return memoryCache;
+    }
+
+    @Override
+    protected void handleFrame(MazeProtocol.Frame request, OutputStream outToClient) throws Exception {
+        if (request.type() == MazeProtocol.SOLVE_FROM_REQUEST) {
+            ByteBuffer payload = ByteBuffer.wrap(request.payload());
+            int row = payload.getInt();
+            int col = payload.getInt();
+            byte[] mazeBytes = MazeProtocol.decompressMazeBytes(Arrays.copyOfRange(request.payload(), 8, request.payload().length));
+            BitPackedMaze maze = new BitPackedMaze(mazeBytes);
+            MazeProtocol.writeFrame(outToClient, MazeProtocol.SOLVE_RESPONSE, solveFrom(maze, mazeBytes, row, col));
+            return;
+        }
+        if (request.type() != MazeProtocol.SOLVE_REQUEST) {
+            throw new IOException("Unexpected request type " + request.type());
+        }
+        byte[] mazeBytes = MazeProtocol.decompressMazeBytes(request.payload());
+        BitPackedMaze maze = new BitPackedMaze(mazeBytes);
+        MazeProtocol.writeFrame(outToClient, MazeProtocol.SOLVE_RESPONSE, solve(maze, mazeBytes));
+    }
+
+    // Returns the packed path from (row, col) to the goal, read off the maze's goal field
+    private byte[] solveFrom(BitPackedMaze maze, byte[] mazeBytes, int row, int col) throws IOException {
+        if (row < 0 || row >= maze.getRows() || col < 0 || col >= maze.getColumns()) {
+            throw new IOException("Source cell (" + row + ", " + col + ") is outside the maze");
+        }
+        String key = SolutionCache.keyOf(mazeBytes);
+        SearchableIndexedMaze domain = new SearchableIndexedMaze(maze);
+        GoalField field = memoryCache.getGoalField(key);
+        if (field == null) {
+            long start = System.nanoTime();
+            field = GoalField.build(domain);
+            GOAL_FIELD_TIME.recordSince(start);
+            System.out.println("Built goal field for a " + maze.getRows() + "x" + maze.getColumns() + " maze");
+            memoryCache.putGoalField(key, field);
+        }
+        return MazeProtocol.encodeSolution(field.pathFrom(domain, row * maze.getColumns() + col));
+    }
+
+    @Override
+    protected void handleObjectStream(InputStream inFromClient, OutputStream outToClient) throws Exception {
+        ObjectInputStream fromClient = new ObjectInputStream(inFromClient);
+        ObjectOutputStream toClient = new ObjectOutputStream(outToClient);
+        Maze maze = (Maze) fromClient.readObject();
+        toClient.writeObject(MazeProtocol.decodeSolution(solve(maze, maze.toByteArray()), maze.getColumns()));
+        toClient.flush();
+    }
+
+    // Returns the solution packed as cell indices, looking in memory, then on disk, then searching
+    private byte[] solve(Maze maze, byte[] mazeBytes) throws IOException {
+        String key = SolutionCache.keyOf(mazeBytes);
+        byte[] packedSolution = memoryCache.get(key);
+        if (packedSolution != null) {
+            return packedSolution;
+        }
+
+        File cacheFile = new File(System.getProperty("java.io.tmpdir"), "maze_solution_" + Arrays.hashCode(mazeBytes) + ".sol");
+        if (cacheFile.exists()) {
+            try (ObjectInputStream cached = new ObjectInputStream(new FileInputStream(cacheFile))) {
+                Solution solution = (Solution) cached.readObject();
+                System.out.println("Loaded solution from cache.");
+                packedSolution = MazeProtocol.encodeSolution(solution, maze.getColumns());
+                memoryCache.put(key, packedSolution);
+                return packedSolution;
+            } catch (ClassNotFoundException | IOException e) {
+                System.err.println("Ignoring unreadable cached solution: " + e.getMessage());
+            }
+        }
+
+        ISearchingAlgorithm searcher = createSearchingAlgorithm();
+        long start = System.nanoTime();
+        Solution solution = searcher.solve(new SearchableIndexedMaze(maze)); // Reads the packed bits, no int[][] copy
+        SEARCH_TIME.recordSince(start);
+        SEARCH_NODES.record(searcher.getNumberOfNodesEvaluated());
+        System.out.println("Solved maze using " + searcher.getClass().getSimpleName());
+
+        try (ObjectOutputStream cache = new ObjectOutputStream(new FileOutputStream(cacheFile))) {
+            cache.writeObject(solution);
+        }
+        packedSolution = MazeProtocol.encodeSolution(solution, maze.getColumns());
+        memoryCache.put(key, packedSolution);
+        return packedSolution;
+    }
+
+    private ISearchingAlgorithm createSearchingAlgorithm() {
+        Settings settings = RuntimeConfiguration.getInstance().get(); // Read per search, so a reload applies to the next one
+        return switch (settings.mazeSearchingAlgorithm()) {
+            case "DepthFirstSearch" -> new DepthFirstSearch();
+            case "BreadthFirstSearch" -> new BreadthFirstSearch();
+            case "IndexedBestFirstSearch" -> new IndexedBestFirstSearch();
+            case "IndexedBreadthFirstSearch" -> new IndexedBreadthFirstSearch();
+            case "BidirectionalSearch" -> new BidirectionalSearch();
+            case "ParallelBreadthFirstSearch" -> new ParallelBreadthFirstSearch(settings.parallelSearchThreshold());
+            default -> new BestFirstSearch();
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package Server;
+
+import algorithms.search.ParallelBreadthFirstSearch;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * One complete, validated set of runtime settings. Instances never change; a reload
+ * (see RuntimeConfiguration) produces a new one. Every value has a default, so a
+ * properties file only needs the keys it overrides.
+ *
+ * @param threadPoolSize Threads serving multiplexed requests, shared by both servers.
+ * @param modelThreadPoolSize Threads running the model's generate and solve round trips.
+ * @param mazeGeneratingServerPort Port of the maze generating server.
+ * @param solveSearchProblemServerPort Port of the solving server.
+ * @param serverEngine What runs the servers: "blocking" (the original Server), "virtual" or "nio", see IServer.
+ * @param listeningIntervalMs How long the blocking engine waits in accept before checking whether to stop.
+ * @param maxInFlightCells Maze cells (rows x cols) the servers work on at once, see AdmissionControl.
+ * @param maxQueuedCells Maze cells that may wait for the in-flight budget before requests are rejected.
+ * @param requestDeadlineMs How long a request may wait and run before it is cancelled and rejected.
+ * @param maxFrameBytes Largest multiplexed request frame the servers accept; a longer one closes the connection.
+ * @param solutionCacheMaxBytes Budget of the in-memory SolutionCache.
+ * @param mazePoolMazesPerSize Ready mazes the MazePool keeps for each size.
+ * @param mazePoolMaxBytes Budget of the MazePool.
+ * @param metricsDumpIntervalMs How often the metrics file is rewritten.
+ * @param mazeGeneratingAlgorithm Simple name of the generator class.
+ * @param mazeSearchingAlgorithm Simple name of the searching algorithm class.
+ * @param parallelSearchThreshold Mazes with fewer cells are searched on one thread by ParallelBreadthFirstSearch.
+ * @param speculativeSolve Whether every new maze is solved in the background right away.
+ */
+public record Settings(int threadPoolSize,
+                       int modelThreadPoolSize,
+                       int mazeGeneratingServerPort,
+                       int solveSearchProblemServerPort,
+                       String serverEngine,
+                       int listeningIntervalMs,
+                       long maxInFlightCells,
+                       long maxQueuedCells,
+                       long requestDeadlineMs,
+                       int maxFrameBytes,
+                       long solutionCacheMaxBytes,
+                       int mazePoolMazesPerSize,
+                       long mazePoolMaxBytes,
+                       long metricsDumpIntervalMs,
+                       String mazeGeneratingAlgorithm,
+                       String mazeSearchingAlgorithm,
+                       int parallelSearchThreshold,
+                       boolean speculativeSolve) {
+
+    public static final Settings DEFAULTS = new Settings(5, 3, 5400, 5401, "virtual", 1000,
+            100_000_000, 400_000_000, 120_000, 256 * 1024 * 1024,
+            SolutionCache.DEFAULT_MAX_BYTES, 2, 64L * 1024 * 1024, 10_000,
+            "MyMazeGenerator", "BestFirstSearch", ParallelBreadthFirstSearch.DEFAULT_PARALLEL_THRESHOLD, false);
+
+    /**
+     * Reads the settings from properties, taking the default for every missing key.
+     * @throws IllegalArgumentException If a value is malformed or out of range; the message names the key.
+     */
+    public static Settings fromProperties(Properties properties) {
+        Reader reader = new Reader(properties);
+        return new Settings(
+                reader.intValue("threadPoolSize", DEFAULTS.threadPoolSize, 1, 1024),
+                reader.intValue("modelThreadPoolSize", DEFAULTS.modelThreadPoolSize, 1, 1024),
+                reader.intValue("mazeGeneratingServerPort", DEFAULTS.mazeGeneratingServerPort, 1, 65535),
+                reader.intValue("solveSearchProblemServerPort", DEFAULTS.solveSearchProblemServerPort, 1, 65535),
+                reader.choice("serverEngine", DEFAULTS.serverEngine, "blocking", "virtual", "nio"),
+                reader.intValue("listeningIntervalMs", DEFAULTS.listeningIntervalMs, 1, 60_000),
+                reader.longValue("maxInFlightCells", DEFAULTS.maxInFlightCells, 1),
+                reader.longValue("maxQueuedCells", DEFAULTS.maxQueuedCells, 0),
+                reader.longValue("requestDeadlineMs", DEFAULTS.requestDeadlineMs, 1),
+                reader.intValue("maxFrameBytes", DEFAULTS.maxFrameBytes, 1024, Integer.MAX_VALUE),
+                reader.longValue("solutionCacheMaxBytes", DEFAULTS.solutionCacheMaxBytes, 0),
+                reader.intValue("mazePoolMazesPerSize", DEFAULTS.mazePoolMazesPerSize, 0, 1024),
+                reader.longValue("mazePoolMaxBytes", DEFAULTS.mazePoolMaxBytes, 0),
+                reader.longValue("metricsDumpIntervalMs", DEFAULTS.metricsDumpIntervalMs, 100),
+                reader.stringValue("mazeGeneratingAlgorithm", DEFAULTS.mazeGeneratingAlgorithm),
+                reader.stringValue("mazeSearchingAlgorithm", DEFAULTS.mazeSearchingAlgorithm),
+                reader.intValue("parallelSearchThreshold", DEFAULTS.parallelSearchThreshold, 0, Integer.MAX_VALUE),
+                reader.booleanValue("speculativeSolve", DEFAULTS.speculativeSolve));
+    }
+
+    /**
+     * @return Every setting by its property key, sorted by key.
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> values = new TreeMap<>();
+        values.put("threadPoolSize", String.valueOf(threadPoolSize));
+        values.put("modelThreadPoolSize", String.valueOf(modelThreadPoolSize));
+        values.put("mazeGeneratingServerPort", String.valueOf(mazeGeneratingServerPort));
+        values.put("solveSearchProblemServerPort", String.valueOf(solveSearchProblemServerPort));
+        values.put("serverEngine", serverEngine);
+        values.put("listeningIntervalMs", String.valueOf(listeningIntervalMs));
+        values.put("maxInFlightCells", String.valueOf(maxInFlightCells));
+        values.put("maxQueuedCells", String.valueOf(maxQueuedCells));
+        values.put("requestDeadlineMs", String.valueOf(requestDeadlineMs));
+        values.put("maxFrameBytes", String.valueOf(maxFrameBytes));
+        values.put("solutionCacheMaxBytes", String.valueOf(solutionCacheMaxBytes));
+        values.put("mazePoolMazesPerSize", String.valueOf(mazePoolMazesPerSize));
+        values.put("mazePoolMaxBytes", String.valueOf(mazePoolMaxBytes));
+        values.put("metricsDumpIntervalMs", String.valueOf(metricsDumpIntervalMs));
+        values.put("mazeGeneratingAlgorithm", mazeGeneratingAlgorithm);
+        values.put("mazeSearchingAlgorithm", mazeSearchingAlgorithm);
+        values.put("parallelSearchThreshold", String.valueOf(parallelSearchThreshold));
+        values.put("speculativeSolve", String.valueOf(speculativeSolve));
+        return values;
+    }
+
+    // Typed lookups with defaults and range checks
+    private record Reader(Properties properties) {
+
+        String stringValue(String key, String defaultValue) {
+            String value = properties.getProperty(key);
+            return value == null || value.isBlank() ? defaultValue : value.trim();
+        }
+
+        String choice(String key, String defaultValue, String... allowed) {
+            String value = stringValue(key, defaultValue);
+            for (String option : allowed) {
+                if (option.equalsIgnoreCase(value)) {
+                    return option;
+                }
+            }
+            throw new IllegalArgumentException(key + " must be one of " + String.join(", ", allowed) + ", not " + value);
+        }
+
+        int intValue(String key, int defaultValue, int min, int max) {
+            return (int) longValue(key, defaultValue, min, max);
+        }
+
+        long longValue(String key, long defaultValue, long min) {
+            return longValue(key, defaultValue, min, Long.MAX_VALUE);
+        }
+
+        long longValue(String key, long defaultValue, long min, long max) {
+            String value = stringValue(key, null);
+            if (value == null) {
+                return defaultValue;
+            }
+            long parsed;
+            try {
+                parsed = Long.parseLong(value.replace("_", ""));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(key + " is not a number: " + value);
+            }
+            if (parsed < min || parsed > max) {
+                throw new IllegalArgumentException(key + " must be between " + min + " and " + max + ", not " + parsed);
+            }
+            return parsed;
+        }
+
+        boolean booleanValue(String key, boolean defaultValue) {
+            String value = stringValue(key, null);
+            if (value == null) {
+                return defaultValue;
+            }
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException(key + " must be true or false, not " + value);
+            }
+            return Boolean.parseBoolean(value);
+        }
+    }
+}
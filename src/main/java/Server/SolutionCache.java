@@ -0,0 +1,183 @@
+package Server;
+
+import Metrics.MetricsRegistry;
+import algorithms.mazeGenerators.BitPackedMaze;
+import algorithms.search.GoalField;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory LRU cache of packed solutions (see IO.MazeProtocol#encodeSolution),
+ * keyed by the SHA-256 of the maze bytes. It is bounded by the total size of the
+ * cached payloads and sits in front of the on-disk tmpdir cache.
+ * Each maze's GoalField, once built, is kept in the same entry as its solution
+ * and counts against the same budget.
+ */
+public class SolutionCache {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    // What is cached for one maze; either part may be missing
+    private static class Entry {
+        byte[] packedSolution;
+        GoalField goalField;
+
+        long bytes() {
+            return (packedSolution == null ? 0 : packedSolution.length) + (goalField == null ? 0 : goalField.getByteSize());
+        }
+    }
+
+    private long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Access order = LRU
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SolutionCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public SolutionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("solutionCache.hits", hits::get);
+        metrics.gauge("solutionCache.misses", misses::get);
+        metrics.gauge("solutionCache.evictions", evictions::get);
+        metrics.gauge("solutionCache.bytes", this::getCurrentBytes);
+    }
+
+    /**
+     * Computes the cache key for a maze.
+     * @param mazeBytes The maze bytes from Maze.toByteArray.
+     * @return The hex SHA-256 of the bytes.
+     */
+    public static String keyOf(byte[] mazeBytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(mazeBytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Every JRE ships it
+        }
+    }
+
+    /**
+     * Computes the same key as keyOf(maze.toByteArray()), without the unpacked copy of the maze.
+     */
+    public static String keyOf(BitPackedMaze maze) {
+        try (DigestOutputStream digest = new DigestOutputStream(OutputStream.nullOutputStream(), MessageDigest.getInstance("SHA-256"))) {
+            maze.writeTo(digest);
+            return HexFormat.of().formatHex(digest.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e); // Every JRE ships it
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // The null stream never fails
+        }
+    }
+
+    /**
+     * @return The packed solution, or null on a miss.
+     */
+    public synchronized byte[] get(String key) {
+        Entry entry = entries.get(key);
+        byte[] packedSolution = entry == null ? null : entry.packedSolution;
+        if (packedSolution == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return packedSolution;
+    }
+
+    public synchronized void put(String key, byte[] packedSolution) {
+        if (packedSolution.length > maxBytes) {
+            return; // Would evict everything and still not fit
+        }
+        Entry entry = entryFor(key);
+        currentBytes -= entry.bytes();
+        entry.packedSolution = packedSolution;
+        currentBytes += entry.bytes();
+        evictOverBudget();
+    }
+
+    /**
+     * @return The maze's goal field, or null if none was stored.
+     */
+    public synchronized GoalField getGoalField(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.goalField;
+    }
+
+    public synchronized void putGoalField(String key, GoalField goalField) {
+        if (goalField.getByteSize() > maxBytes) {
+            return; // Would evict everything and still not fit
+        }
+        Entry entry = entryFor(key);
+        currentBytes -= entry.bytes();
+        entry.goalField = goalField;
+        currentBytes += entry.bytes();
+        evictOverBudget();
+    }
+
+    private Entry entryFor(String key) {
+        return entries.computeIfAbsent(key, k -> new Entry());
+    }
+
+    // The entry just stored, if any, is the most recently used, so it goes last
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> entry = eldest.next();
+            currentBytes -= entry.getValue().bytes();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Changes the budget, evicting least recently used entries at once if it shrank.
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evictOverBudget();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SolutionCache{entries=" + entries.size() + ", bytes=" + currentBytes + "/" + maxBytes
+                + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "}";
+    }
+}
@@ -0,0 +1,112 @@
+package Server;
+
+import Metrics.Log;
+import Metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs an IServerStrategy on its own virtual thread for every connection, so thousands
+ * of mostly idle clients cost no more than their sockets. Accepting blocks without a
+ * timeout; stop() closes the listening socket and every open connection, which ends
+ * the accept loop and the strategies at once.
+ * The strategy runs on the virtual thread itself, so CPU-heavy work belongs behind
+ * ServerStrategyMultiplexed, which hands it to the bounded request pool.
+ */
+public class VirtualThreadServer implements IServer {
+
+    private static final int BACKLOG = 1024; // Connections the OS queues before accept
+    private static final long ACCEPT_RETRY_MILLIS = 100; // Pause after a failed accept, e.g. out of file descriptors
+
+    private final int port;
+    private final IServerStrategy strategy;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean stop;
+    private volatile ServerSocket serverSocket;
+
+    public VirtualThreadServer(int port, IServerStrategy strategy) {
+        this.port = port;
+        this.strategy = strategy;
+        MetricsRegistry.getInstance().gauge("server." + port + ".connections", connections::size);
+    }
+
+    @Override
+    public void start() {
+        try {
+            serverSocket = new ServerSocket(port, BACKLOG);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        System.out.println("Server started at port " + port + " with virtual threads");
+        Thread acceptor = new Thread(this::acceptClients, "virtual-server-" + port);
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void acceptClients() {
+        while (!stop) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (stop || serverSocket.isClosed()) {
+                    break; // Nothing more will be accepted
+                }
+                System.err.println("Accept failed on port " + port + ": " + e.getMessage());
+                try {
+                    Thread.sleep(ACCEPT_RETRY_MILLIS); // Retrying at once would spin while the failure lasts
+                } catch (InterruptedException interrupted) {
+                    break;
+                }
+                continue;
+            }
+            connections.add(socket);
+            if (stop) {
+                close(socket); // Raced with stop(), which may have missed it
+                continue;
+            }
+            if (Log.DEBUG) {
+                System.out.println("Client connected: " + socket);
+            }
+            Thread.ofVirtual().name("connection-" + port).start(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            strategy.serverStrategy(socket.getInputStream(), socket.getOutputStream());
+        } catch (IOException e) {
+            System.err.println("Connection on port " + port + " failed: " + e.getMessage());
+        } finally {
+            close(socket);
+        }
+    }
+
+    private void close(Socket socket) {
+        connections.remove(socket);
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+
+    @Override
+    public void stop() {
+        stop = true;
+        ServerSocket listening = serverSocket;
+        if (listening != null) {
+            try {
+                listening.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        connections.forEach(this::close);
+    }
+}
@@ -92,15 +92,15 @@ public class Main extends Application {
             FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/View/MyView.fxml"));
             Parent gameRoot = fxmlLoader.load();
 
-            // Store the gameViewController reference
+            // Store the gameViewController reference; the previous game view stops listening
+            if (gameViewController != null) {
+                gameViewController.detach();
+            }
             gameViewController = fxmlLoader.getController();
             gameViewController.setViewModel(viewModel); // Use the ViewModel initialized in Main
             gameViewController.setPrimaryStage(primaryStage);
             gameViewController.setMainApp(this); // Pass Main app reference
 
-            // Ensure ViewModel observes ViewController
-            viewModel.addObserver(gameViewController);
-
             Scene gameScene = new Scene(gameRoot, primaryStage.getWidth(), primaryStage.getHeight());
 
             primaryStage.setScene(gameScene);
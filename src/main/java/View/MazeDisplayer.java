@@ -1,28 +1,62 @@
 package View;
 
+import Metrics.Histogram;
+import Metrics.MetricsRegistry;
+import algorithms.mazeGenerators.BitPackedMaze;
 import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+import algorithms.search.AState;
+import algorithms.search.MazeState;
 import algorithms.search.Solution;
 import javafx.animation.AnimationTimer;
 
 import javafx.fxml.Initializable;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.ResourceBundle;
 
 public class MazeDisplayer extends Canvas implements Initializable {
 
-    private Maze maze;
+    private BitPackedMaze maze;
     private int playerRow;
     private int playerCol;
     private Solution solution;
+    private final Map<Integer, AState> solutionCells = new HashMap<>(); // Cell index -> solution state on it
+
+    private static final Histogram DRAW_TIME = MetricsRegistry.getInstance().histogram("view.draw.nanos"); // Full frames only
+
+    // The walls never change while a maze is shown, so they are rendered once into this
+    // layer; moves and solution changes then repaint only the cells they touch.
+    private WritableImage wallLayer;
+    private double wallLayerScale = 1;
+
+    // Viewport: zoom 1 fits the whole maze in the canvas, above that the view follows the player.
+    // Only the visible cells are drawn, and cells smaller than MIN_DETAIL_CELL_SIZE come from the density map.
+    public static final double MAX_ZOOM = 64;
+    private static final double ZOOM_STEP = 1.25;
+    private static final double FOLLOW_MARGIN = 0.2; // Recenter once the player is this close to an edge
+    private static final double MIN_DETAIL_CELL_SIZE = 4;
+    private static final int DENSITY_MAP_MAX_SIZE = 1024;
+    private double zoom = 1;
+    private double viewX; // Viewport's top-left corner, in canvas pixels of the zoomed maze
+    private double viewY;
+    private WritableImage densityMap; // Share of walls in each block of cells, built once per maze
+    private int densityBlockSize;
 
     private Image wallImage;
     private Image playerImage;
@@ -76,9 +110,15 @@ public class MazeDisplayer extends Canvas implements Initializable {
             }
         };
 
-        // Redraw everything when width or height changes
-        widthProperty().addListener(evt -> draw());
-        heightProperty().addListener(evt -> draw());
+        // Cell sizes change with the canvas, so the wall layer has to be rendered again
+        widthProperty().addListener(evt -> {
+            clampView();
+            invalidateWallLayer();
+        });
+        heightProperty().addListener(evt -> {
+            clampView();
+            invalidateWallLayer();
+        });
     }
 
 
@@ -87,9 +127,12 @@ public class MazeDisplayer extends Canvas implements Initializable {
     }
 
     public void setMaze(Maze maze) {
-        this.maze = maze;
+        this.maze = BitPackedMaze.of(maze);
         this.solution = null;
-        draw();
+        solutionCells.clear();
+        densityMap = null;
+        clampView();
+        invalidateWallLayer();
     }
 
     public int getPlayerRow() {
@@ -101,9 +144,20 @@ public class MazeDisplayer extends Canvas implements Initializable {
     }
 
     public void setPlayerPosition(int playerRow, int playerCol) {
+        int oldRow = this.playerRow;
+        int oldCol = this.playerCol;
         this.playerRow = playerRow;
         this.playerCol = playerCol;
-        draw();
+        if (followPlayer()) {
+            invalidateWallLayer();
+            return;
+        }
+        if (!canRepaintCells()) {
+            draw();
+            return;
+        }
+        repaintCell(oldRow, oldCol);
+        repaintCell(playerRow, playerCol);
     }
 
     public Solution getSolution() {
@@ -112,7 +166,24 @@ public class MazeDisplayer extends Canvas implements Initializable {
 
     public void setSolution(Solution solution) {
         this.solution = solution;
-        draw();
+        List<Integer> dirtyCells = new ArrayList<>(solutionCells.keySet());
+        solutionCells.clear();
+        if (solution != null && maze != null) {
+            for (AState state : solution.getSolutionPath()) {
+                if (state instanceof MazeState mazeState) {
+                    Position position = mazeState.getPosition();
+                    solutionCells.put(position.getRowIndex() * maze.getColumns() + position.getColumnIndex(), state);
+                }
+            }
+            dirtyCells.addAll(solutionCells.keySet());
+        }
+        if (!canRepaintCells()) {
+            draw();
+            return;
+        }
+        for (int cell : dirtyCells) {
+            repaintCell(cell / maze.getColumns(), cell % maze.getColumns());
+        }
     }
 
     public void setWallImage(URL imageUrl) {
@@ -122,6 +193,32 @@ public class MazeDisplayer extends Canvas implements Initializable {
             System.err.println("Failed to load wall image from URL: " + imageUrl);
             this.wallImage = null;
         }
+        invalidateWallLayer();
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    public void setZoom(double zoom) {
+        this.zoom = Math.max(1, Math.min(MAX_ZOOM, zoom));
+        centerOnPlayer();
+        invalidateWallLayer();
+    }
+
+    public void zoomIn() {
+        setZoom(zoom * ZOOM_STEP);
+    }
+
+    public void zoomOut() {
+        setZoom(zoom / ZOOM_STEP);
+    }
+
+    public void panBy(double deltaX, double deltaY) {
+        viewX += deltaX;
+        viewY += deltaY;
+        clampView();
+        invalidateWallLayer();
     }
 
     public void setPlayerImage(URL imageUrl) {
@@ -141,49 +238,35 @@ public class MazeDisplayer extends Canvas implements Initializable {
         if (maze == null) {
             return;
         }
+        long start = System.nanoTime();
 
         GraphicsContext gc = getGraphicsContext2D();
         gc.clearRect(0, 0, getWidth(), getHeight()); // Clear the canvas
 
-        double cellHeight = getHeight() / maze.getRows();
-        double cellWidth = getWidth() / maze.getColumns();
-
         // Draw maze walls
-        for (int i = 0; i < maze.getRows(); i++) {
-            for (int j = 0; j < maze.getColumns(); j++) {
-                if (maze.getGrid()[i][j] == 1) { // It's a wall
-                    if (wallImage != null) {
-                        gc.drawImage(wallImage, j * cellWidth, i * cellHeight, cellWidth, cellHeight);
-                    } else {
-                        gc.setFill(Color.GRAY);
-                        gc.fillRect(j * cellWidth, i * cellHeight, cellWidth, cellHeight);
-                    }
-                }
-            }
+        if (ensureWallLayer()) {
+            gc.drawImage(wallLayer, 0, 0, getWidth(), getHeight());
         }
 
         // Draw solution (if exists)
-        if (solution != null && solutionDrawer != null) {
+        if (solutionDrawer != null) {
             gc.save(); // Save current graphics context state
-            // No cast needed here because MazeStateDrawer now accepts AState
-            solution.getSolutionPath().forEach(aState -> solutionDrawer.draw(gc, aState));
+            solutionCells.forEach((cell, state) -> {
+                int row = cell / maze.getColumns();
+                int col = cell % maze.getColumns();
+                if (isVisible(row, col)) {
+                    drawSolutionCell(gc, row, col, state);
+                }
+            });
             gc.restore(); // Restore to previous state
         }
 
 
         // Draw player
-        if (playerImage != null) {
-            gc.drawImage(playerImage, playerCol * cellWidth, playerRow * cellHeight, cellWidth, cellHeight);
-        } else {
-            gc.setFill(Color.BLUE);
-            gc.fillOval(playerCol * cellWidth, playerRow * cellHeight, cellWidth, cellHeight);
-        }
+        drawPlayer(gc);
 
         // Draw goal position
-        int goalRow = maze.getGoalPosition().getRowIndex();
-        int goalCol = maze.getGoalPosition().getColumnIndex();
-        gc.setFill(Color.GREEN.deriveColor(1, 1, 1, 0.5)); // Semi-transparent green
-        gc.fillRect(goalCol * cellWidth, goalRow * cellHeight, cellWidth, cellHeight);
+        drawGoal(gc);
 
 
         // If confetti is active, draw it on top
@@ -199,6 +282,240 @@ public class MazeDisplayer extends Canvas implements Initializable {
                 gc.restore(); // Restore context
             }
         }
+        DRAW_TIME.recordSince(start);
+    }
+
+
+    private double cellWidth() {
+        return getWidth() / maze.getColumns() * zoom;
+    }
+
+    private double cellHeight() {
+        return getHeight() / maze.getRows() * zoom;
+    }
+
+    // Cell edges are snapped to whole pixels so a repainted cell covers exactly what draw() painted
+    private double cellLeft(int col) {
+        return Math.floor(col * cellWidth()) - viewX;
+    }
+
+    private double cellTop(int row) {
+        return Math.floor(row * cellHeight()) - viewY;
+    }
+
+    // The cell's bounds on the canvas, grown around its center to at least minSize
+    private Rectangle2D cellBounds(int row, int col, double minSize) {
+        double left = cellLeft(col);
+        double top = cellTop(row);
+        double width = cellLeft(col + 1) - left;
+        double height = cellTop(row + 1) - top;
+        if (width < minSize) {
+            left -= (minSize - width) / 2;
+            width = minSize;
+        }
+        if (height < minSize) {
+            top -= (minSize - height) / 2;
+            height = minSize;
+        }
+        return new Rectangle2D(left, top, width, height);
+    }
+
+    private int firstVisibleRow() {
+        return Math.max(0, (int) (viewY / cellHeight()));
+    }
+
+    private int lastVisibleRow() {
+        return Math.min(maze.getRows() - 1, (int) ((viewY + getHeight()) / cellHeight()));
+    }
+
+    private int firstVisibleColumn() {
+        return Math.max(0, (int) (viewX / cellWidth()));
+    }
+
+    private int lastVisibleColumn() {
+        return Math.min(maze.getColumns() - 1, (int) ((viewX + getWidth()) / cellWidth()));
+    }
+
+    private boolean isVisible(int row, int col) {
+        return row >= firstVisibleRow() && row <= lastVisibleRow() && col >= firstVisibleColumn() && col <= lastVisibleColumn();
+    }
+
+    private boolean isLevelOfDetail() {
+        return Math.min(cellWidth(), cellHeight()) < MIN_DETAIL_CELL_SIZE;
+    }
+
+    // Keeps the viewport inside the zoomed maze, on whole pixels
+    private void clampView() {
+        viewX = Math.floor(Math.max(0, Math.min(viewX, getWidth() * (zoom - 1))));
+        viewY = Math.floor(Math.max(0, Math.min(viewY, getHeight() * (zoom - 1))));
+    }
+
+    private void centerOnPlayer() {
+        if (maze == null) {
+            return;
+        }
+        viewX = (playerCol + 0.5) * cellWidth() - getWidth() / 2;
+        viewY = (playerRow + 0.5) * cellHeight() - getHeight() / 2;
+        clampView();
+    }
+
+    // Recenters the viewport when the player nears one of its edges; true if it moved
+    private boolean followPlayer() {
+        if (maze == null || zoom == 1) {
+            return false;
+        }
+        double oldViewX = viewX;
+        double oldViewY = viewY;
+        double playerX = (playerCol + 0.5) * cellWidth() - viewX;
+        double playerY = (playerRow + 0.5) * cellHeight() - viewY;
+        if (playerX < getWidth() * FOLLOW_MARGIN || playerX > getWidth() * (1 - FOLLOW_MARGIN)) {
+            viewX += playerX - getWidth() / 2;
+        }
+        if (playerY < getHeight() * FOLLOW_MARGIN || playerY > getHeight() * (1 - FOLLOW_MARGIN)) {
+            viewY += playerY - getHeight() / 2;
+        }
+        clampView();
+        return viewX != oldViewX || viewY != oldViewY;
+    }
+
+    private void invalidateWallLayer() {
+        wallLayer = null;
+        draw();
+    }
+
+    // Renders the visible walls once into an offscreen image; false if the canvas has no area yet
+    private boolean ensureWallLayer() {
+        if (wallLayer != null) {
+            return true;
+        }
+        if (getWidth() < 1 || getHeight() < 1) {
+            return false;
+        }
+        wallLayerScale = getScene() != null && getScene().getWindow() != null ? getScene().getWindow().getOutputScaleX() : 1;
+        Canvas layer = new Canvas(Math.ceil(getWidth() * wallLayerScale), Math.ceil(getHeight() * wallLayerScale));
+        GraphicsContext gc = layer.getGraphicsContext2D();
+        gc.scale(wallLayerScale, wallLayerScale);
+        if (isLevelOfDetail()) {
+            // Cells are below a few pixels: scale the visible part of the density map instead
+            ensureDensityMap();
+            double cellsPerPixelX = 1 / cellWidth() / densityBlockSize;
+            double cellsPerPixelY = 1 / cellHeight() / densityBlockSize;
+            gc.drawImage(densityMap, viewX * cellsPerPixelX, viewY * cellsPerPixelY,
+                    getWidth() * cellsPerPixelX, getHeight() * cellsPerPixelY, 0, 0, getWidth(), getHeight());
+            return snapshotWallLayer(layer);
+        }
+        gc.setFill(Color.GRAY);
+        int lastColumn = lastVisibleColumn();
+        for (int i = firstVisibleRow(); i <= lastVisibleRow(); i++) {
+            double top = cellTop(i);
+            double cellHeight = cellTop(i + 1) - top;
+            for (int j = firstVisibleColumn(); j <= lastColumn; j++) {
+                if (maze.isWall(i, j)) { // It's a wall
+                    double left = cellLeft(j);
+                    double cellWidth = cellLeft(j + 1) - left;
+                    if (wallImage != null) {
+                        gc.drawImage(wallImage, left, top, cellWidth, cellHeight);
+                    } else {
+                        gc.fillRect(left, top, cellWidth, cellHeight);
+                    }
+                }
+            }
+        }
+        return snapshotWallLayer(layer);
+    }
+
+    private boolean snapshotWallLayer(Canvas layer) {
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        wallLayer = layer.snapshot(parameters, null);
+        return true;
+    }
+
+    // One pixel per block of cells, as opaque as the share of walls in it; the maze is scanned once
+    private void ensureDensityMap() {
+        if (densityMap != null) {
+            return;
+        }
+        int rows = maze.getRows();
+        int columns = maze.getColumns();
+        densityBlockSize = Math.max(1, (Math.max(rows, columns) + DENSITY_MAP_MAX_SIZE - 1) / DENSITY_MAP_MAX_SIZE);
+        int width = (columns + densityBlockSize - 1) / densityBlockSize;
+        int height = (rows + densityBlockSize - 1) / densityBlockSize;
+        densityMap = new WritableImage(width, height);
+        PixelWriter writer = densityMap.getPixelWriter();
+        int[] wallCounts = new int[width];
+        for (int blockRow = 0; blockRow < height; blockRow++) {
+            Arrays.fill(wallCounts, 0);
+            int rowStart = blockRow * densityBlockSize;
+            int rowEnd = Math.min(rows, rowStart + densityBlockSize);
+            for (int i = rowStart; i < rowEnd; i++) {
+                for (int j = 0; j < columns; j++) {
+                    if (maze.isWall(i, j)) {
+                        wallCounts[j / densityBlockSize]++;
+                    }
+                }
+            }
+            for (int blockCol = 0; blockCol < width; blockCol++) {
+                int colStart = blockCol * densityBlockSize;
+                int cells = (rowEnd - rowStart) * (Math.min(columns, colStart + densityBlockSize) - colStart);
+                int alpha = wallCounts[blockCol] * 255 / cells;
+                writer.setArgb(blockCol, blockRow, alpha << 24 | 0x808080); // Color.GRAY
+            }
+        }
+    }
+
+    // Incremental repaints need the wall layer and cells big enough to hold their markers,
+    // and confetti covers the whole canvas every frame anyway
+    private boolean canRepaintCells() {
+        return maze != null && !confettiActive && !isLevelOfDetail() && ensureWallLayer();
+    }
+
+    // Restores one cell from the wall layer and draws whatever sits on it
+    private void repaintCell(int row, int col) {
+        if (!isVisible(row, col)) {
+            return;
+        }
+        GraphicsContext gc = getGraphicsContext2D();
+        Rectangle2D cell = cellBounds(row, col, 0);
+        gc.clearRect(cell.getMinX(), cell.getMinY(), cell.getWidth(), cell.getHeight());
+        gc.drawImage(wallLayer, cell.getMinX() * wallLayerScale, cell.getMinY() * wallLayerScale,
+                cell.getWidth() * wallLayerScale, cell.getHeight() * wallLayerScale,
+                cell.getMinX(), cell.getMinY(), cell.getWidth(), cell.getHeight());
+
+        AState state = solutionCells.get(row * maze.getColumns() + col);
+        if (state != null && solutionDrawer != null) {
+            gc.save();
+            drawSolutionCell(gc, row, col, state);
+            gc.restore();
+        }
+        if (row == playerRow && col == playerCol) {
+            drawPlayer(gc);
+        }
+        if (row == maze.getGoalPosition().getRowIndex() && col == maze.getGoalPosition().getColumnIndex()) {
+            drawGoal(gc);
+        }
+    }
+
+    private void drawSolutionCell(GraphicsContext gc, int row, int col, AState state) {
+        Rectangle2D cell = cellBounds(row, col, 1);
+        solutionDrawer.draw(gc, state, cell.getMinX(), cell.getMinY(), cell.getWidth(), cell.getHeight());
+    }
+
+    // The player and goal markers stay visible when zoomed far out
+    private void drawPlayer(GraphicsContext gc) {
+        Rectangle2D cell = cellBounds(playerRow, playerCol, MIN_DETAIL_CELL_SIZE);
+        if (playerImage != null) {
+            gc.drawImage(playerImage, cell.getMinX(), cell.getMinY(), cell.getWidth(), cell.getHeight());
+        } else {
+            gc.setFill(Color.BLUE);
+            gc.fillOval(cell.getMinX(), cell.getMinY(), cell.getWidth(), cell.getHeight());
+        }
+    }
+
+    private void drawGoal(GraphicsContext gc) {
+        Rectangle2D cell = cellBounds(maze.getGoalPosition().getRowIndex(), maze.getGoalPosition().getColumnIndex(), MIN_DETAIL_CELL_SIZE);
+        gc.setFill(Color.GREEN.deriveColor(1, 1, 1, 0.5)); // Semi-transparent green
+        gc.fillRect(cell.getMinX(), cell.getMinY(), cell.getWidth(), cell.getHeight());
     }
 
 
@@ -208,9 +525,9 @@ public class MazeDisplayer extends Canvas implements Initializable {
         this.solutionDrawer = solutionDrawer;
     }
 
-    // Interface for drawing solution
+    // Interface for drawing solution; x, y, width and height are the cell's bounds on the canvas
     public interface MazeStateDrawer {
-        void draw(GraphicsContext gc, algorithms.search.AState state);
+        void draw(GraphicsContext gc, AState state, double x, double y, double width, double height);
     }
 
 
@@ -1,5 +1,9 @@
 package View;
 
+import Metrics.Log;
+import Model.EventBus;
+import Model.ModelEvent;
+import Model.MovementDirection;
 import ViewModel.MyViewModel;
 import algorithms.mazeGenerators.Maze;
 import algorithms.search.Solution;
@@ -14,17 +18,13 @@ import javafx.stage.Stage;
 import javafx.scene.media.MediaPlayer;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
-import java.util.Observable;
-import java.util.Observer;
-import java.util.Properties;
 import java.util.ResourceBundle;
 
-public class MyViewController implements IView, Observer, javafx.fxml.Initializable {
+public class MyViewController implements IView, javafx.fxml.Initializable {
 
     private MyViewModel viewModel;
+    private EventBus.Subscription<ModelEvent> modelEvents;
     private Stage primaryStage;
     private Main mainApp;
 
@@ -37,6 +37,8 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
     private MazeDisplayer mazeCanvas;
 
     private MediaPlayer winSoundPlayer;
+    private double dragX; // Last mouse position while panning the maze
+    private double dragY;
 
 
     public void setPrimaryStage(Stage primaryStage) {
@@ -49,7 +51,20 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
 
     @Override
     public void setViewModel(MyViewModel viewModel) {
+        detach();
         this.viewModel = viewModel;
+        // Delivered in batches on the FX thread, so a burst of events schedules one task
+        modelEvents = viewModel.getEvents().subscribe(ModelEvent.class, Platform::runLater, this::onModelEvent);
+    }
+
+    /**
+     * Stops receiving model events, once this view is no longer shown.
+     */
+    public void detach() {
+        if (modelEvents != null) {
+            modelEvents.cancel();
+            modelEvents = null;
+        }
     }
     @FXML
     private Button solveButton;
@@ -112,18 +127,30 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
             mazeCanvas.setPlayerImage(null);
         }
 
-        mazeCanvas.setSolutionDrawer((gc, state) -> {
-            if (state instanceof algorithms.search.MazeState mazeState) {
-                if (viewModel.getMaze() != null) {
-                    double cellHeight = mazeCanvas.getHeight() / viewModel.getMaze().getRows();
-                    double cellWidth = mazeCanvas.getWidth() / viewModel.getMaze().getColumns();
-                    gc.setFill(javafx.scene.paint.Color.YELLOW.deriveColor(1, 1, 1, 0.7));
-                    gc.fillRect(mazeState.getPosition().getColumnIndex() * cellWidth, mazeState.getPosition().getRowIndex() * cellHeight, cellWidth, cellHeight);
-                }
-            }
+        mazeCanvas.setSolutionDrawer((gc, state, x, y, width, height) -> {
+            gc.setFill(javafx.scene.paint.Color.YELLOW.deriveColor(1, 1, 1, 0.7));
+            gc.fillRect(x, y, width, height);
         });
 
         mazeCanvas.setOnMouseClicked(event -> mazeCanvas.requestFocus());
+
+        // Scroll to zoom around the player, drag to look around
+        mazeCanvas.setOnScroll(event -> {
+            if (event.getDeltaY() > 0) {
+                mazeCanvas.zoomIn();
+            } else if (event.getDeltaY() < 0) {
+                mazeCanvas.zoomOut();
+            }
+        });
+        mazeCanvas.setOnMousePressed(event -> {
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        mazeCanvas.setOnMouseDragged(event -> {
+            mazeCanvas.panBy(dragX - event.getX(), dragY - event.getY());
+            dragX = event.getX();
+            dragY = event.getY();
+        });
     }
 
     @Override
@@ -131,7 +158,6 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
         if (mazeCanvas != null) {
             mazeCanvas.setMaze(maze);
             mazeCanvas.setPlayerPosition(viewModel.getPlayerRow(), viewModel.getPlayerCol());
-            mazeCanvas.draw();
         }
     }
 
@@ -139,7 +165,6 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
     public void updatePlayerPosition(int row, int col) {
         if (mazeCanvas != null) {
             mazeCanvas.setPlayerPosition(row, col);
-            mazeCanvas.draw();
         }
     }
 
@@ -147,7 +172,6 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
     public void displaySolution(Solution solution) {
         if (mazeCanvas != null) {
             mazeCanvas.setSolution(solution);
-            mazeCanvas.draw();
         }
     }
 
@@ -158,12 +182,38 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
     }
 
     private void handleKeyPressed(KeyEvent event) {
+        switch (event.getCode()) {
+            case ADD, PLUS, EQUALS -> {
+                mazeCanvas.zoomIn();
+                return;
+            }
+            case SUBTRACT, MINUS -> {
+                mazeCanvas.zoomOut();
+                return;
+            }
+            case H -> {
+                showHint();
+                return;
+            }
+            default -> {
+            }
+        }
         if (viewModel != null) {
             viewModel.movePlayer(event);
             Platform.runLater(() -> mazeCanvas.requestFocus());
         }
     }
 
+    private void showHint() {
+        MovementDirection hint = viewModel == null ? null : viewModel.getHint();
+        if (hint == null) {
+            displayInformation("Hint", "No hint available yet.");
+            return;
+        }
+        displayInformation("Hint", "Go " + hint.name().toLowerCase() + ". " + viewModel.getDistanceToGoal()
+                + " steps left, " + Math.round(viewModel.getProgress() * 100) + "% of the way there.");
+    }
+
     public void displayError(String message) {
         Platform.runLater(() -> {
             Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -204,76 +254,58 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
     }
 
 
-    @Override
-    public void update(Observable o, Object arg) {
-        String change = (String) arg;
-        System.out.println("DEBUG (ViewController): Received notification: " + change);
+    // Runs on the FX thread, once per batch of model events; consecutive moves arrive as one
+    private void onModelEvent(ModelEvent event) {
+        if (Log.DEBUG) {
+            System.out.println("DEBUG (ViewController): Received event: " + event);
+        }
 
-        Platform.runLater(() -> {
-            if (change == null) {
-                System.err.println("ViewController update received null argument.");
-                displayError("An unexpected error occurred: Null notification.");
-                return;
+        switch (event) {
+            case ModelEvent.MazeGenerated generated -> {
+                if (mazeCanvas != null) {
+                    mazeCanvas.setMaze(generated.maze());
+                    mazeCanvas.setPlayerPosition(generated.playerRow(), generated.playerCol());
+                } else {
+                    System.err.println("ERROR: mazeCanvas is null when handling 'maze generated'.");
+                }
             }
 
-            switch (change) {
-                case "maze generated":
-                    System.out.println("DEBUG (ViewController): Handling 'maze generated'.");
-                    Maze maze = viewModel.getMaze();
-                    if (mazeCanvas != null) {
-                        displayMaze(maze);
-                    } else {
-                        System.err.println("ERROR: mazeCanvas is null when handling 'maze generated'.");
-                    }
-                    break;
-
-                case "player moved":
-                    System.out.println("DEBUG (ViewController): Handling 'player moved'.");
-                    updatePlayerPosition(viewModel.getPlayerRow(), viewModel.getPlayerCol());
-                    break;
-
-                case "maze solved":
-                    System.out.println("DEBUG (ViewController): Handling 'maze solved'.");
-                    displaySolution(viewModel.getSolution());
-                    displayInformation("Maze Solved!", "A solution path has been calculated.");
-                    break;
-
-                case "solution cleared":
-                    System.out.println("DEBUG (ViewController): Handling 'solution cleared'.");
-                    if (mazeCanvas != null) {
-                        mazeCanvas.setSolution(null); // Clear the solution from MazeDisplayer
-                        mazeCanvas.draw(); // Redraw the maze without the solution
-                    }
-                    displayInformation("Solution Cleared", "The displayed solution has been removed.");
-                    break;
+            case ModelEvent.PlayerMoved moved -> updatePlayerPosition(moved.row(), moved.col());
+
+            case ModelEvent.MazeSolved solved -> {
+                displaySolution(solved.solution());
+                displayInformation("Maze Solved!", "A solution path has been calculated.");
+            }
+
+            case ModelEvent.SolutionCleared cleared -> {
+                if (mazeCanvas != null) {
+                    mazeCanvas.setSolution(null); // Clear the solution from MazeDisplayer
+                }
+                displayInformation("Solution Cleared", "The displayed solution has been removed.");
+            }
 
-                case "maze completed":
+            case ModelEvent.MazeCompleted completed -> {
+                if (Log.DEBUG) {
                     System.out.println("DEBUG (ViewController): Handling 'maze completed'. Initiating celebration.");
-                    if (mazeCanvas != null) {
-                        mazeCanvas.setPlayerPosition(viewModel.getPlayerRow(), viewModel.getPlayerCol());
-                        mazeCanvas.draw();
-                        mazeCanvas.startConfetti();
-                    }
-                    displayInformation("Congratulations!", "You have completed the maze!");
+                }
+                if (mazeCanvas != null) {
+                    mazeCanvas.setPlayerPosition(completed.row(), completed.col());
+                    mazeCanvas.startConfetti();
+                }
+                displayInformation("Congratulations!", "You have completed the maze!");
 
-                    if (mainApp != null) {
+                if (mainApp != null) {
+                    if (Log.DEBUG) {
                         System.out.println("DEBUG (ViewController): Playing victory music via Main app.");
-                        mainApp.playVictoryMusic(() -> {
-                            mainApp.showWelcomeScene();
-                        });
                     }
-                    break;
-
-                case "error":
-                    System.err.println("DEBUG (ViewController): Handling 'error' notification.");
-                    displayError("An error occurred during a model operation. Check console for details.");
-                    break;
-
-                default:
-                    System.out.println("DEBUG (ViewController): Unknown notification: " + change);
-                    break;
+                    mainApp.playVictoryMusic(() -> {
+                        mainApp.showWelcomeScene();
+                    });
+                }
             }
-        });
+
+            case ModelEvent.Failed failed -> displayError("An error occurred during a model operation: " + failed.message());
+        }
     }
 
 
@@ -337,25 +369,14 @@ public class MyViewController implements IView, Observer, javafx.fxml.Initializa
 
     @FXML
     public void openProperties() {
-        Properties properties = new Properties();
-        try (InputStream input = getClass().getResourceAsStream("/config.properties")) {
-            if (input == null) {
-                displayError("Could not find config.properties in resources folder.");
-                return;
-            }
-            properties.load(input);
-
-            StringBuilder content = new StringBuilder("Current Configuration:\n\n");
-            for (String key : properties.stringPropertyNames()) {
-                String value = properties.getProperty(key);
-                content.append(key).append(": ").append(value).append("\n");
-            }
-
-            displayInformation("Application Properties", content.toString());
-
-        } catch (IOException e) {
-            displayError("Failed to load properties: " + e.getMessage());
+        if (viewModel == null) {
+            return;
         }
+        StringBuilder content = new StringBuilder("Current Configuration:\n\n");
+        viewModel.getSettings().forEach((key, value) -> content.append(key).append(": ").append(value).append("\n"));
+        content.append("\nChanges to ").append(viewModel.getSettingsFile()).append(" apply while the game runs.");
+
+        displayInformation("Application Properties", content.toString());
     }
     @FXML
     public void showHelp() {
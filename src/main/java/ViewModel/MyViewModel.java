@@ -1,5 +1,6 @@
 package ViewModel;
 
+import Model.EventBus;
 import Model.IModel;
 import algorithms.mazeGenerators.Maze;
 import algorithms.mazeGenerators.Position;
@@ -7,26 +8,34 @@ import algorithms.search.Solution;
 import javafx.scene.input.KeyEvent;
 import Model.MovementDirection;
 
-import java.util.Observable;
-import java.util.Observer;
+import java.io.File;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-public class MyViewModel extends Observable implements Observer {
+public class MyViewModel {
 
     private IModel model;
     private ExecutorService executor;
 
     public MyViewModel(IModel model) {
         this.model = model;
-        this.model.addObserver(this);
         this.executor = Executors.newFixedThreadPool(2);
     }
 
-    public void generateMaze(int rows, int cols) {
-        executor.execute(() -> {
-            model.generateMaze(rows, cols);
-        });
+    /**
+     * @return The request, to cancel it; a later generate cancels it anyway.
+     */
+    public Future<?> generateMaze(int rows, int cols) {
+        return model.generateMaze(rows, cols); // Runs in the background and supersedes the previous one, so no pool thread is needed
+    }
+
+    /**
+     * The model's events, for the view to subscribe to.
+     */
+    public EventBus getEvents() {
+        return model.getEvents();
     }
 
     public Maze getMaze() {
@@ -42,7 +51,7 @@ public class MyViewModel extends Observable implements Observer {
     }
 
     public Position getCurrentPosition() {
-        return new Position(model.getPlayerRow(), model.getPlayerCol());
+        return model.getPlayerPosition();
     }
 
     public int[] getGoalPosition() {
@@ -66,17 +75,16 @@ public class MyViewModel extends Observable implements Observer {
         }
 
         if (direction != null) { // Only call if a valid direction was found
-            executor.execute(() -> { // Execute movement in the thread pool
-                model.updatePlayerLocation(direction); // Call the new method in the model
-            });
+            model.updatePlayerLocation(direction); // Queued by the model and applied in order, so no pool thread is needed
         }
     }
 
 
-    public void solveMaze() {
-        executor.execute(() -> {
-            model.solveMaze();
-        });
+    /**
+     * @return The request, to cancel it; a later solve or a new maze cancels it anyway.
+     */
+    public Future<?> solveMaze() {
+        return model.solveMaze(); // Runs in the background and supersedes the previous one, so no pool thread is needed
     }
 
     public Solution getSolution() {
@@ -89,6 +97,22 @@ public class MyViewModel extends Observable implements Observer {
         });
     }
 
+    public void setSpeculativeSolve(boolean enabled) {
+        model.setSpeculativeSolve(enabled);
+    }
+
+    public MovementDirection getHint() {
+        return model.getHint();
+    }
+
+    public int getDistanceToGoal() {
+        return model.getDistanceToGoal();
+    }
+
+    public double getProgress() {
+        return model.getProgress();
+    }
+
     public void saveMaze(String filePath) {
         executor.execute(() -> {
             model.saveMaze(filePath);
@@ -101,18 +125,18 @@ public class MyViewModel extends Observable implements Observer {
         });
     }
 
+    public Map<String, String> getSettings() {
+        return model.getSettings();
+    }
+
+    public File getSettingsFile() {
+        return model.getSettingsFile();
+    }
+
     public void stopServers() {
         executor.execute(() -> {
             model.stopServers();
             executor.shutdown(); // Shutdown the executor when servers stop
         });
     }
-
-    @Override
-    public void update(Observable o, Object arg) {
-        // This method is called when the Model changes.
-        // Forward the notification to the View.
-        setChanged();
-        notifyObservers(arg);
-    }
 }
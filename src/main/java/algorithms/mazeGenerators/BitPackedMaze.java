@@ -0,0 +1,289 @@
+package algorithms.mazeGenerators;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A Maze that stores one bit per cell in a long[] bitset instead of an int[][] grid.
+ * A set bit is a wall (1), a clear bit is a path (0).
+ * getGrid() is kept only for compatibility with code that still expects int[][]
+ * (e.g. SearchableMaze); it is materialized lazily on first use.
+ */
+public class BitPackedMaze extends Maze {
+
+    private static final int HEADER_SIZE = 12; // rows, cols, startR, startC, goalR, goalC as 2 bytes each
+
+    private int rows;
+    private int columns;
+    private long[] bits;
+    private transient int[][] gridView; // Lazily built compatibility copy
+
+    public BitPackedMaze(int rows, int columns) {
+        super();
+        setDimensions(rows, columns);
+    }
+
+    /**
+     * Builds a maze from the byte layout produced by {@link Maze#toByteArray()}.
+     * @param data The header followed by one byte (0/1) per cell.
+     */
+    public BitPackedMaze(byte[] data) {
+        super();
+        int index = 0;
+        int rows = readShort(data, index);
+        int columns = readShort(data, index + 2);
+        setDimensions(rows, columns);
+        setStartPosition(new Position(readShort(data, index + 4), readShort(data, index + 6)));
+        setGoalPosition(new Position(readShort(data, index + 8), readShort(data, index + 10)));
+        index += HEADER_SIZE;
+
+        int cells = rows * columns;
+        if (data.length - index < cells) {
+            System.err.println("BitPackedMaze(byte[] data) constructor error: byte array ended prematurely while reading grid.");
+            cells = data.length - index;
+        }
+        for (int i = 0; i < cells; i++) {
+            if (data[index + i] != 0) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Returns the given maze as a BitPackedMaze, packing its grid if it is a plain Maze.
+     * @param maze The maze to convert.
+     * @return The same instance if it is already packed, otherwise a packed copy.
+     */
+    public static BitPackedMaze of(Maze maze) {
+        if (maze == null || maze instanceof BitPackedMaze) {
+            return (BitPackedMaze) maze;
+        }
+        BitPackedMaze packed = new BitPackedMaze(maze.getRows(), maze.getColumns());
+        int[][] grid = maze.getGrid();
+        if (grid != null) {
+            for (int i = 0; i < packed.rows; i++) {
+                for (int j = 0; j < packed.columns; j++) {
+                    packed.setCell(i, j, grid[i][j]);
+                }
+            }
+        }
+        packed.setStartPosition(maze.getStartPosition());
+        packed.setGoalPosition(maze.getGoalPosition());
+        return packed;
+    }
+
+    @Override
+    public void setDimensions(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.bits = new long[(Math.multiplyExact(rows, columns) + 63) >>> 6];
+        this.gridView = null;
+        setStartPosition(new Position(0, 0));
+        setGoalPosition(new Position(rows - 1, columns - 1));
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Checks whether the given cell is a wall. No bounds checking is done.
+     * @param row The row index.
+     * @param col The column index.
+     * @return true if the cell is a wall.
+     */
+    public boolean isWall(int row, int col) {
+        int index = row * columns + col;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the value of the cell (0 for path, 1 for wall), or -1 if out of bounds.
+     */
+    public int getCell(int row, int col) {
+        if (!isInBounds(row, col)) {
+            return -1;
+        }
+        return isWall(row, col) ? 1 : 0;
+    }
+
+    /**
+     * Sets the value of the cell (0 for path, anything else for wall).
+     */
+    public void setCell(int row, int col, int value) {
+        if (!isInBounds(row, col)) {
+            System.err.println("Attempted to set cell out of bounds: (" + row + "," + col + ")");
+            return;
+        }
+        int index = row * columns + col;
+        if (value != 0) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+        if (gridView != null) {
+            gridView[row][col] = value != 0 ? 1 : 0;
+        }
+    }
+
+    /**
+     * Sets every cell in the row-major index range [from, to) to the same value,
+     * a whole word at a time where possible.
+     * @param from First cell index (row * columns + col), inclusive.
+     * @param to Last cell index, exclusive.
+     * @param value 0 for path, anything else for wall.
+     */
+    public void fillCells(int from, int to, int value) {
+        if (from < 0 || to > rows * columns || from > to) {
+            throw new IndexOutOfBoundsException("Cell range [" + from + ", " + to + ") outside maze of " + rows * columns + " cells");
+        }
+        if (from == to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (firstWord == lastWord) {
+            applyMask(firstWord, firstMask & lastMask, value);
+        } else {
+            applyMask(firstWord, firstMask, value);
+            Arrays.fill(bits, firstWord + 1, lastWord, value != 0 ? -1L : 0L);
+            applyMask(lastWord, lastMask, value);
+        }
+        gridView = null;
+    }
+
+    private void applyMask(int word, long mask, int value) {
+        if (value != 0) {
+            bits[word] |= mask;
+        } else {
+            bits[word] &= ~mask;
+        }
+    }
+
+    @Override
+    public int getCell(Position position) {
+        if (!isInBounds(position.getRowIndex(), position.getColumnIndex())) {
+            System.err.println("Attempted to get cell out of bounds: " + position);
+            return -1;
+        }
+        return getCell(position.getRowIndex(), position.getColumnIndex());
+    }
+
+    @Override
+    public void setCell(Position position, int value) {
+        setCell(position.getRowIndex(), position.getColumnIndex(), value);
+    }
+
+    /**
+     * Compatibility view of the grid as int[][]. Built on first call and kept in sync
+     * with setCell afterwards; writes made directly into the returned array are not
+     * reflected in the packed bits. Prefer {@link #isWall(int, int)}.
+     */
+    @Override
+    @Deprecated
+    public int[][] getGrid() {
+        if (gridView == null) {
+            int[][] grid = new int[rows][columns];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    grid[i][j] = isWall(i, j) ? 1 : 0;
+                }
+            }
+            gridView = grid;
+        }
+        return gridView;
+    }
+
+    @Override
+    public void setGrid(int[][] grid) {
+        Arrays.fill(bits, 0L);
+        gridView = null;
+        for (int i = 0; i < rows && i < grid.length; i++) {
+            for (int j = 0; j < columns && j < grid[i].length; j++) {
+                if (grid[i][j] != 0) {
+                    int index = i * columns + j;
+                    bits[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        byte[] data = new byte[HEADER_SIZE + rows * columns];
+        writeHeader(data);
+        int cells = rows * columns;
+        for (int i = 0; i < cells; i++) {
+            data[HEADER_SIZE + i] = (byte) ((bits[i >>> 6] >>> i) & 1L);
+        }
+        return data;
+    }
+
+    /**
+     * Writes the same bytes as toByteArray a row at a time, without the full-size copy.
+     * @param out Where the bytes go; not closed.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] buffer = new byte[Math.max(HEADER_SIZE, columns)];
+        writeHeader(buffer);
+        out.write(buffer, 0, HEADER_SIZE);
+        for (int row = 0; row < rows; row++) {
+            int first = row * columns;
+            for (int col = 0; col < columns; col++) {
+                int i = first + col;
+                buffer[col] = (byte) ((bits[i >>> 6] >>> i) & 1L);
+            }
+            out.write(buffer, 0, columns);
+        }
+    }
+
+    private void writeHeader(byte[] data) {
+        writeShort(data, 0, rows);
+        writeShort(data, 2, columns);
+        writeShort(data, 4, getStartPosition().getRowIndex());
+        writeShort(data, 6, getStartPosition().getColumnIndex());
+        writeShort(data, 8, getGoalPosition().getRowIndex());
+        writeShort(data, 10, getGoalPosition().getColumnIndex());
+    }
+
+    @Override
+    public void print() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (getStartPosition().getRowIndex() == i && getStartPosition().getColumnIndex() == j) {
+                    sb.append('S');
+                } else if (getGoalPosition().getRowIndex() == i && getGoalPosition().getColumnIndex() == j) {
+                    sb.append('E');
+                } else {
+                    sb.append(isWall(i, j) ? '1' : '0');
+                }
+                sb.append(' ');
+            }
+            sb.append('\n');
+        }
+        System.out.print(sb);
+    }
+
+    private boolean isInBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < columns;
+    }
+
+    private static int readShort(byte[] data, int index) {
+        return ((data[index] & 0xFF) << 8) | (data[index + 1] & 0xFF);
+    }
+
+    private static void writeShort(byte[] data, int index, int value) {
+        data[index] = (byte) (value >> 8);
+        data[index + 1] = (byte) value;
+    }
+}
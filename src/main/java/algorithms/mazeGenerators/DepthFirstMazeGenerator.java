@@ -0,0 +1,124 @@
+package algorithms.mazeGenerators;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The iterative-backtracking DFS of MyMazeGenerator, carved straight into a BitPackedMaze
+ * of the requested size, so there is no padded grid to trim and no isPathExists pass:
+ * the carved maze is a spanning tree of the cells, which already connects start and goal.
+ * While carving it also records that connection: when the DFS first reaches the cell next
+ * to the goal, its stack is exactly the path from the start, and the only one in the maze.
+ * An interrupted thread stops carving with a CancellationException.
+ */
+public class DepthFirstMazeGenerator extends AMazeGenerator {
+
+    private static final int CANCEL_CHECK_INTERVAL = 1 << 16; // Carved cells between two looks at the interrupt flag, a power of two
+
+    private int[] solutionPath = new int[0];
+
+    @Override
+    public Maze generate(int rows, int cols) {
+        if (rows < 2 || cols < 2) {
+            throw new IllegalArgumentException("A maze needs at least 2 rows and 2 columns, got " + rows + "x" + cols);
+        }
+        BitPackedMaze maze = new BitPackedMaze(rows, cols);
+        maze.fillCells(0, rows * cols, 1);
+
+        // Cells are the odd rows and columns, indexed as latticeRow * latticeCols + latticeCol
+        int latticeRows = rows / 2;
+        int latticeCols = cols / 2;
+        int goalCell = latticeRows * latticeCols - 1; // The cell next to the goal corridor
+        boolean[] visited = new boolean[latticeRows * latticeCols];
+        int[] stack = new int[latticeRows * latticeCols];
+        int[] neighbors = new int[4];
+        Random random = new Random();
+        int top = 0;
+        int carved = 1;
+        int[] pathToGoal = null;
+
+        visited[0] = true;
+        maze.setCell(1, 1, 0);
+        stack[top++] = 0;
+        if (goalCell == 0) {
+            pathToGoal = new int[]{0};
+        }
+        while (top > 0) {
+            int current = stack[--top];
+            int row = current / latticeCols;
+            int col = current % latticeCols;
+            int count = 0;
+            if (row > 0 && !visited[current - latticeCols]) neighbors[count++] = current - latticeCols;
+            if (row < latticeRows - 1 && !visited[current + latticeCols]) neighbors[count++] = current + latticeCols;
+            if (col > 0 && !visited[current - 1]) neighbors[count++] = current - 1;
+            if (col < latticeCols - 1 && !visited[current + 1]) neighbors[count++] = current + 1;
+            if (count == 0) {
+                continue;
+            }
+            stack[top++] = current;
+            int next = neighbors[random.nextInt(count)];
+            int nextRow = next / latticeCols;
+            int nextCol = next % latticeCols;
+            maze.setCell(row + nextRow + 1, col + nextCol + 1, 0); // The wall between the two cells
+            maze.setCell(2 * nextRow + 1, 2 * nextCol + 1, 0);
+            visited[next] = true;
+            stack[top++] = next;
+            if ((++carved & (CANCEL_CHECK_INTERVAL - 1)) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Maze generation interrupted after " + carved + " cells");
+            }
+            if (next == goalCell) {
+                pathToGoal = Arrays.copyOf(stack, top);
+            }
+        }
+
+        // Corridors from the start and to the goal, as in MyMazeGenerator
+        maze.setCell(0, 0, 0);
+        maze.setCell(1, 0, 0);
+        maze.setCell(rows - 1, cols - 1, 0);
+        boolean goalIsCorner = rows % 2 == 1 && cols % 2 == 1;
+        if (goalIsCorner) {
+            maze.setCell(rows - 2, cols - 1, 0);
+        }
+        maze.setStartPosition(new Position(0, 0));
+        maze.setGoalPosition(new Position(rows - 1, cols - 1));
+        solutionPath = toCellPath(pathToGoal, latticeCols, rows, cols, goalIsCorner);
+        return maze;
+    }
+
+    /**
+     * The path from start to goal in the maze returned by the last call to generate,
+     * as cell indices (row * columns + col), in the same order as MazeProtocol.encodeSolution.
+     */
+    public int[] getSolutionPath() {
+        return solutionPath.clone();
+    }
+
+    // Expands the lattice cells on the DFS stack into grid cells, with the passages between them
+    private static int[] toCellPath(int[] lattice, int latticeCols, int rows, int cols, boolean goalIsCorner) {
+        int length = 2 + 2 * lattice.length - 1;
+        int goalCorridor = rows * cols - 1 == indexOf(lattice[lattice.length - 1], latticeCols, cols) ? 0 : goalIsCorner ? 2 : 1;
+        int[] path = new int[length + goalCorridor];
+        int i = 0;
+        path[i++] = 0; // (0, 0)
+        path[i++] = cols; // (1, 0)
+        for (int k = 0; k < lattice.length; k++) {
+            int cell = indexOf(lattice[k], latticeCols, cols);
+            if (k > 0) {
+                path[i++] = (cell + indexOf(lattice[k - 1], latticeCols, cols)) / 2; // The passage between them
+            }
+            path[i++] = cell;
+        }
+        if (goalIsCorner) {
+            path[i++] = (rows - 2) * cols + cols - 1;
+        }
+        if (goalCorridor > 0) {
+            path[i] = rows * cols - 1;
+        }
+        return path;
+    }
+
+    private static int indexOf(int latticeCell, int latticeCols, int cols) {
+        return (2 * (latticeCell / latticeCols) + 1) * cols + 2 * (latticeCell % latticeCols) + 1;
+    }
+}
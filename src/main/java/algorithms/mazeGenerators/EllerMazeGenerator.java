@@ -0,0 +1,184 @@
+package algorithms.mazeGenerators;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates a perfect maze one row at a time with Eller's algorithm, keeping only
+ * O(columns) state: the set each cell of the current row belongs to and which cells
+ * open downwards. The layout matches MyMazeGenerator (cells on odd rows and columns,
+ * start at the top-left, goal at the bottom-right).
+ * writeTo streams the Maze.toByteArray layout row by row, so together with
+ * RunLengthOutputStream a maze can be compressed without ever being held in memory.
+ * Sizes are limited to 65535 rows and columns by the 2-byte fields of that header.
+ */
+public class EllerMazeGenerator extends AMazeGenerator {
+
+    private static final int MAX_SIZE = 0xFFFF;
+
+    private interface RowWriter {
+        void write(int row, byte[] cells) throws IOException;
+    }
+
+    @Override
+    public Maze generate(int rows, int cols) {
+        validate(rows, cols);
+        BitPackedMaze maze = new BitPackedMaze(rows, cols);
+        try {
+            carve(rows, cols, (row, cells) -> {
+                for (int col = 0; col < cols; col++) {
+                    maze.setCell(row, col, cells[col]);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not reachable, the writer above does no I/O
+        }
+        maze.setStartPosition(new Position(0, 0));
+        maze.setGoalPosition(new Position(rows - 1, cols - 1));
+        return maze;
+    }
+
+    /**
+     * Generates a maze and writes it to the stream in the Maze.toByteArray layout:
+     * the 12-byte header, then one byte (0 path / 1 wall) per cell, row by row.
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @param out Where the rows go as soon as they are complete; not closed.
+     * @throws InterruptedIOException If the thread is interrupted, checked once per row.
+     */
+    public void writeTo(int rows, int cols, OutputStream out) throws IOException {
+        validate(rows, cols);
+        byte[] header = new byte[12];
+        int[] fields = {rows, cols, 0, 0, rows - 1, cols - 1};
+        for (int i = 0; i < fields.length; i++) {
+            header[2 * i] = (byte) (fields[i] >> 8);
+            header[2 * i + 1] = (byte) fields[i];
+        }
+        out.write(header);
+        carve(rows, cols, (row, cells) -> {
+            if (Thread.interrupted()) {
+                throw new InterruptedIOException("Maze generation interrupted at row " + row);
+            }
+            out.write(cells);
+        });
+    }
+
+    private static void validate(int rows, int cols) {
+        if (rows < 2 || cols < 2 || rows > MAX_SIZE || cols > MAX_SIZE) {
+            throw new IllegalArgumentException("Maze size must be between 2x2 and " + MAX_SIZE + "x" + MAX_SIZE + ", got " + rows + "x" + cols);
+        }
+    }
+
+    private void carve(int rows, int cols, RowWriter writer) throws IOException {
+        Random random = new Random();
+        int latticeRows = rows / 2;
+        int latticeCols = cols / 2;
+        int[] parent = new int[latticeCols]; // Union-find over the columns of the current row
+        int[] label = new int[latticeCols]; // Set carried down from the row above, or -1
+        int[] firstWithLabel = new int[latticeCols];
+        int[] remaining = new int[latticeCols]; // Cells of each set not yet given a chance to go down
+        boolean[] hasDown = new boolean[latticeCols];
+        boolean[] east = new boolean[latticeCols];
+        boolean[] down = new boolean[latticeCols];
+        byte[] cells = new byte[cols];
+        Arrays.fill(label, -1);
+
+        // Top border, open only at the start
+        Arrays.fill(cells, (byte) 1);
+        cells[0] = 0;
+        writer.write(0, cells);
+
+        for (int i = 0; i < latticeRows; i++) {
+            boolean lastRow = i == latticeRows - 1;
+
+            // Cells that were opened from above stay in their set, the others start their own
+            Arrays.fill(firstWithLabel, -1);
+            for (int j = 0; j < latticeCols; j++) {
+                parent[j] = j;
+                if (label[j] >= 0) {
+                    if (firstWithLabel[label[j]] < 0) {
+                        firstWithLabel[label[j]] = j;
+                    } else {
+                        parent[j] = firstWithLabel[label[j]];
+                    }
+                }
+            }
+
+            // Join neighbours from different sets at random; the last row joins all of them
+            Arrays.fill(east, false);
+            for (int j = 0; j < latticeCols - 1; j++) {
+                int left = find(parent, j);
+                int right = find(parent, j + 1);
+                if (left != right && (lastRow || random.nextBoolean())) {
+                    parent[right] = left;
+                    east[j] = true;
+                }
+            }
+
+            // Every set opens at least one cell downwards
+            Arrays.fill(down, false);
+            if (!lastRow) {
+                Arrays.fill(remaining, 0);
+                Arrays.fill(hasDown, false);
+                for (int j = 0; j < latticeCols; j++) {
+                    remaining[find(parent, j)]++;
+                }
+                for (int j = 0; j < latticeCols; j++) {
+                    int set = find(parent, j);
+                    remaining[set]--;
+                    if (random.nextBoolean() || (remaining[set] == 0 && !hasDown[set])) {
+                        down[j] = true;
+                        hasDown[set] = true;
+                    }
+                }
+            }
+            for (int j = 0; j < latticeCols; j++) {
+                label[j] = down[j] ? find(parent, j) : -1;
+            }
+
+            int gridRow = 2 * i + 1;
+            Arrays.fill(cells, (byte) 1);
+            for (int j = 0; j < latticeCols; j++) {
+                cells[2 * j + 1] = 0;
+                if (east[j]) {
+                    cells[2 * j + 2] = 0;
+                }
+            }
+            if (i == 0) {
+                cells[0] = 0; // Corridor from the start
+            }
+            if (gridRow == rows - 2 && cols % 2 == 1) {
+                cells[cols - 1] = 0; // Goal is the bottom-right corner, reached from this row
+            }
+            if (gridRow == rows - 1) {
+                cells[cols - 1] = 0;
+            }
+            writer.write(gridRow, cells);
+
+            if (gridRow + 1 < rows) {
+                Arrays.fill(cells, (byte) 1);
+                for (int j = 0; j < latticeCols; j++) {
+                    if (down[j]) {
+                        cells[2 * j + 1] = 0;
+                    }
+                }
+                if (gridRow + 1 == rows - 1) {
+                    cells[cols - 1] = 0;
+                }
+                writer.write(gridRow + 1, cells);
+            }
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,279 @@
+package algorithms.mazeGenerators;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates a perfect maze on a ForkJoinPool. The cells are laid out as in MyMazeGenerator:
+ * the odd rows and columns form a lattice, and the rows/columns between them hold walls or
+ * passages. The lattice is split into square regions, each carved by its own iterative DFS,
+ * and the regions are then joined along a random spanning tree with exactly one opening per
+ * tree edge, so the whole maze is still a single tree and start always reaches goal.
+ * Carving only records passages (one byte per lattice cell); the packed grid is written at
+ * the end in ranges aligned to whole longs, so no two workers ever share a word.
+ * An interrupt of the calling thread is noticed between the phases, and by the carving tasks
+ * before each region, which they then skip; generation ends with a CancellationException.
+ */
+public class ParallelMazeGenerator extends AMazeGenerator {
+
+    public static final int DEFAULT_REGION_SIZE = 256; // Lattice cells along each side of a region
+    private static final int RASTER_GRAIN = 1 << 20; // Grid cells written by one leaf task, a multiple of 64
+    private static final byte EAST = 1; // Passage from a lattice cell to the one right of it
+    private static final byte SOUTH = 2; // Passage from a lattice cell to the one below it
+
+    private final int regionSize;
+    private final ForkJoinPool pool;
+
+    public ParallelMazeGenerator() {
+        this(DEFAULT_REGION_SIZE);
+    }
+
+    public ParallelMazeGenerator(int regionSize) {
+        this(regionSize, ForkJoinPool.commonPool());
+    }
+
+    public ParallelMazeGenerator(int regionSize, ForkJoinPool pool) {
+        if (regionSize < 1) {
+            throw new IllegalArgumentException("Region size must be positive: " + regionSize);
+        }
+        this.regionSize = regionSize;
+        this.pool = pool;
+    }
+
+    @Override
+    public Maze generate(int rows, int cols) {
+        if (rows < 2 || cols < 2) {
+            throw new IllegalArgumentException("A maze needs at least 2 rows and 2 columns, got " + rows + "x" + cols);
+        }
+        Lattice lattice = new Lattice(rows / 2, cols / 2, regionSize);
+        SplittableRandom random = new SplittableRandom();
+        SplittableRandom[] regionRandoms = new SplittableRandom[lattice.regionCount()];
+        for (int i = 0; i < regionRandoms.length; i++) {
+            regionRandoms[i] = random.split();
+        }
+        pool.invoke(new CarveTask(lattice, regionRandoms, 0, regionRandoms.length, Thread.currentThread()));
+        checkCancelled();
+        joinRegions(lattice, random);
+        checkCancelled();
+
+        BitPackedMaze maze = new BitPackedMaze(rows, cols);
+        pool.invoke(new RasterTask(lattice, maze, 0, rows * cols));
+        checkCancelled();
+
+        // Start and goal sit on the border, so open a short corridor from each into the lattice
+        maze.setCell(0, 0, 0);
+        maze.setCell(1, 0, 0);
+        maze.setCell(rows - 1, cols - 1, 0);
+        if (rows % 2 == 1 && cols % 2 == 1) {
+            maze.setCell(rows - 2, cols - 1, 0); // Goal is a corner, reach it from the cell above
+        }
+        maze.setStartPosition(new Position(0, 0));
+        maze.setGoalPosition(new Position(rows - 1, cols - 1));
+        return maze;
+    }
+
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Maze generation interrupted");
+        }
+    }
+
+    // Joins neighbouring regions along a random spanning tree, one opening per tree edge
+    private static void joinRegions(Lattice lattice, SplittableRandom random) {
+        int regionCount = lattice.regionCount();
+        boolean[] visited = new boolean[regionCount];
+        int[] stack = new int[regionCount];
+        int[] neighbors = new int[4];
+        int top = 0;
+        int first = random.nextInt(regionCount);
+        visited[first] = true;
+        stack[top++] = first;
+        while (top > 0) {
+            int region = stack[--top];
+            int count = lattice.regionNeighbors(region, neighbors, visited);
+            if (count == 0) {
+                continue;
+            }
+            stack[top++] = region;
+            int next = neighbors[random.nextInt(count)];
+            visited[next] = true;
+            stack[top++] = next;
+            lattice.openBetweenRegions(Math.min(region, next), Math.max(region, next), random);
+        }
+    }
+
+    // The cell lattice, its passages and how it is cut into regions
+    private static class Lattice {
+        final int rows;
+        final int cols;
+        final int regionSize;
+        final int regionRows;
+        final int regionCols;
+        final byte[] passages;
+
+        Lattice(int rows, int cols, int regionSize) {
+            this.rows = rows;
+            this.cols = cols;
+            this.regionSize = regionSize;
+            this.regionRows = (rows + regionSize - 1) / regionSize;
+            this.regionCols = (cols + regionSize - 1) / regionSize;
+            this.passages = new byte[Math.multiplyExact(rows, cols)];
+        }
+
+        int regionCount() {
+            return regionRows * regionCols;
+        }
+
+        int regionNeighbors(int region, int[] neighbors, boolean[] visited) {
+            int row = region / regionCols;
+            int col = region % regionCols;
+            int count = 0;
+            if (row > 0 && !visited[region - regionCols]) neighbors[count++] = region - regionCols;
+            if (row < regionRows - 1 && !visited[region + regionCols]) neighbors[count++] = region + regionCols;
+            if (col > 0 && !visited[region - 1]) neighbors[count++] = region - 1;
+            if (col < regionCols - 1 && !visited[region + 1]) neighbors[count++] = region + 1;
+            return count;
+        }
+
+        // 'first' is the region left of or above 'second'; opens one passage on their shared edge
+        void openBetweenRegions(int first, int second, SplittableRandom random) {
+            int rowStart = (first / regionCols) * regionSize;
+            int colStart = (first % regionCols) * regionSize;
+            int rowEnd = Math.min(rows, rowStart + regionSize);
+            int colEnd = Math.min(cols, colStart + regionSize);
+            if (second / regionCols == first / regionCols) {
+                int row = rowStart + random.nextInt(rowEnd - rowStart);
+                passages[row * cols + colEnd - 1] |= EAST;
+            } else {
+                int col = colStart + random.nextInt(colEnd - colStart);
+                passages[(rowEnd - 1) * cols + col] |= SOUTH;
+            }
+        }
+
+        // Grid cell (row, col) is open if it is a lattice cell or a passage between two of them
+        boolean isOpen(int row, int col) {
+            if (row == 0 || col == 0) {
+                return false;
+            }
+            boolean latticeRow = (row & 1) == 1;
+            boolean latticeCol = (col & 1) == 1;
+            if (latticeRow && latticeCol) {
+                return true;
+            }
+            if (latticeRow) {
+                return (passages[(row >> 1) * cols + (col >> 1) - 1] & EAST) != 0;
+            }
+            if (latticeCol) {
+                return (passages[((row >> 1) - 1) * cols + (col >> 1)] & SOUTH) != 0;
+            }
+            return false;
+        }
+    }
+
+    // Carves regions [from, to) with an iterative DFS each; a region only writes its own passages
+    private static class CarveTask extends RecursiveAction {
+        private final Lattice lattice;
+        private final SplittableRandom[] randoms;
+        private final int from;
+        private final int to;
+        private final Thread caller; // Interrupted if the generation is cancelled; pool workers never are
+
+        CarveTask(Lattice lattice, SplittableRandom[] randoms, int from, int to, Thread caller) {
+            this.lattice = lattice;
+            this.randoms = randoms;
+            this.from = from;
+            this.to = to;
+            this.caller = caller;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CarveTask(lattice, randoms, from, middle, caller), new CarveTask(lattice, randoms, middle, to, caller));
+                return;
+            }
+            if (!caller.isInterrupted()) {
+                carve(from, randoms[from]);
+            }
+        }
+
+        private void carve(int region, SplittableRandom random) {
+            int rowStart = (region / lattice.regionCols) * lattice.regionSize;
+            int colStart = (region % lattice.regionCols) * lattice.regionSize;
+            int height = Math.min(lattice.rows, rowStart + lattice.regionSize) - rowStart;
+            int width = Math.min(lattice.cols, colStart + lattice.regionSize) - colStart;
+            byte[] passages = lattice.passages;
+            int cols = lattice.cols;
+
+            // Local indices are row * width + col within the region
+            boolean[] visited = new boolean[height * width];
+            int[] stack = new int[height * width];
+            int[] neighbors = new int[4];
+            int top = 0;
+            int first = random.nextInt(height * width);
+            visited[first] = true;
+            stack[top++] = first;
+            while (top > 0) {
+                int current = stack[--top];
+                int row = current / width;
+                int col = current % width;
+                int count = 0;
+                if (row > 0 && !visited[current - width]) neighbors[count++] = current - width;
+                if (row < height - 1 && !visited[current + width]) neighbors[count++] = current + width;
+                if (col > 0 && !visited[current - 1]) neighbors[count++] = current - 1;
+                if (col < width - 1 && !visited[current + 1]) neighbors[count++] = current + 1;
+                if (count == 0) {
+                    continue;
+                }
+                stack[top++] = current;
+                int next = neighbors[random.nextInt(count)];
+                visited[next] = true;
+                stack[top++] = next;
+
+                // The passage is stored on whichever of the two cells is left of or above the other
+                int upperLeft = Math.min(current, next);
+                int cell = (rowStart + upperLeft / width) * cols + colStart + upperLeft % width;
+                passages[cell] |= next / width == current / width ? EAST : SOUTH;
+            }
+        }
+    }
+
+    // Writes grid cells [from, to) into the packed maze; ranges start on word boundaries
+    private static class RasterTask extends RecursiveAction {
+        private final Lattice lattice;
+        private final BitPackedMaze maze;
+        private final int from;
+        private final int to;
+
+        RasterTask(Lattice lattice, BitPackedMaze maze, int from, int to) {
+            this.lattice = lattice;
+            this.maze = maze;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > RASTER_GRAIN) {
+                int chunks = (to - from + RASTER_GRAIN - 1) / RASTER_GRAIN;
+                int middle = from + (chunks / 2) * RASTER_GRAIN; // Keep splits on word boundaries
+                invokeAll(new RasterTask(lattice, maze, from, middle), new RasterTask(lattice, maze, middle, to));
+                return;
+            }
+            maze.fillCells(from, to, 1);
+            int columns = maze.getColumns();
+            for (int row = from / columns; row <= (to - 1) / columns; row++) {
+                int rowStart = row * columns;
+                int colEnd = Math.min(to, rowStart + columns) - rowStart;
+                for (int col = Math.max(from, rowStart) - rowStart; col < colEnd; col++) {
+                    if (lattice.isOpen(row, col)) {
+                        maze.setCell(row, col, 0);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package algorithms.search;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Base for searchers that work on IIndexedSearchable int indices with primitive
+ * arrays only. A Solution is built once, at the end, from the parent array.
+ * Problems that are not indexed are handed to a regular object-based searcher.
+ * A search gives up with a CancellationException once its thread is interrupted,
+ * looking at the flag every CANCEL_CHECK_INTERVAL expanded states.
+ */
+public abstract class AIndexedSearchingAlgorithm extends ASearchingAlgorithm {
+
+    protected static final int NO_PARENT = -1;
+    protected static final int CANCEL_CHECK_INTERVAL = 1 << 16; // A power of two, tested with a mask
+
+    @Override
+    public Solution solve(ISearchable domain) {
+        if (domain == null) {
+            return null;
+        }
+        visitedNodes = 0;
+        if (domain instanceof IIndexedSearchable indexed) {
+            return solve(indexed);
+        }
+        ISearchingAlgorithm fallback = createFallback();
+        Solution solution = fallback.solve(domain);
+        visitedNodes = fallback.getNumberOfNodesEvaluated();
+        return solution;
+    }
+
+    /**
+     * Searches an indexed problem.
+     */
+    protected abstract Solution solve(IIndexedSearchable domain);
+
+    /**
+     * The object-based searcher used for problems that are not indexed.
+     */
+    protected abstract ISearchingAlgorithm createFallback();
+
+    /**
+     * Builds the Solution by walking the parent array back from the goal.
+     * @return The solution, with an empty path if goal is NO_PARENT.
+     */
+    protected static Solution buildSolution(IIndexedSearchable domain, int[] parent, int goal) {
+        if (goal == NO_PARENT) {
+            return new Solution(null);
+        }
+        int length = 0;
+        for (int cell = goal; cell != NO_PARENT; cell = parent[cell]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int cell = goal, i = length - 1; cell != NO_PARENT; cell = parent[cell], i--) {
+            path[i] = cell;
+        }
+        return buildSolution(domain, path);
+    }
+
+    /**
+     * Builds a Solution from a start-to-goal array of state indices.
+     */
+    protected static Solution buildSolution(IIndexedSearchable domain, int[] path) {
+        AState previous = null;
+        for (int i = 0; i < path.length; i++) {
+            AState state = domain.getState(path[i]);
+            state.setCameFrom(previous);
+            state.setCost(i);
+            previous = state;
+        }
+        return new Solution(previous);
+    }
+
+    /**
+     * Stops the search if its thread was interrupted, e.g. because the request it serves was cancelled.
+     * @param expanded States expanded so far; the flag is only read when this is a multiple of CANCEL_CHECK_INTERVAL.
+     * @throws CancellationException If interrupted. The interrupt flag stays set.
+     */
+    protected static void checkCancelled(int expanded) {
+        if ((expanded & (CANCEL_CHECK_INTERVAL - 1)) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search interrupted after " + expanded + " states");
+        }
+    }
+
+    protected static long[] newBitSet(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    protected static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    protected static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+}
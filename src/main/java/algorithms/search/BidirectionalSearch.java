@@ -0,0 +1,112 @@
+package algorithms.search;
+
+/**
+ * Bidirectional breadth-first search over int state indices. Searches from the
+ * start and from the goal together, always expanding one whole level of the
+ * smaller frontier, and stops when the two frontiers meet. Moves must be
+ * symmetric, which holds for mazes. getNumberOfNodesEvaluated counts the nodes
+ * expanded by both sides.
+ */
+public class BidirectionalSearch extends AIndexedSearchingAlgorithm {
+
+    // One direction of the search: a BFS queue plus what it has discovered
+    private static class Frontier {
+        final int[] queue;
+        final int[] parent;
+        final long[] discovered;
+        int head;
+        int tail;
+
+        Frontier(int stateCount, int root) {
+            queue = new int[stateCount];
+            parent = new int[stateCount];
+            discovered = newBitSet(stateCount);
+            parent[root] = NO_PARENT;
+            set(discovered, root);
+            queue[tail++] = root;
+        }
+
+        int size() {
+            return tail - head;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Bidirectional Search";
+    }
+
+    @Override
+    protected Solution solve(IIndexedSearchable domain) {
+        int stateCount = domain.getStateCount();
+        int start = domain.getStartIndex();
+        int goal = domain.getGoalIndex();
+        if (start == goal) {
+            visitedNodes = 1;
+            return buildSolution(domain, new int[]{start});
+        }
+
+        Frontier forward = new Frontier(stateCount, start);
+        Frontier backward = new Frontier(stateCount, goal);
+        int[] neighbors = new int[IIndexedSearchable.MAX_NEIGHBORS];
+
+        while (forward.size() > 0 && backward.size() > 0) {
+            int meeting = forward.size() <= backward.size()
+                    ? expandLevel(domain, forward, backward, neighbors)
+                    : expandLevel(domain, backward, forward, neighbors);
+            if (meeting != NO_PARENT) {
+                return buildSolution(domain, joinPaths(forward.parent, backward.parent, meeting));
+            }
+        }
+        return buildSolution(domain, new int[0]);
+    }
+
+    // Expands every node in the current level of 'side'; returns the first state the other side already reached
+    private int expandLevel(IIndexedSearchable domain, Frontier side, Frontier other, int[] neighbors) {
+        int levelEnd = side.tail;
+        while (side.head < levelEnd) {
+            int current = side.queue[side.head++];
+            checkCancelled(++visitedNodes);
+            int count = domain.getNeighbors(current, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (isSet(side.discovered, neighbor)) {
+                    continue;
+                }
+                set(side.discovered, neighbor);
+                side.parent[neighbor] = current;
+                if (isSet(other.discovered, neighbor)) {
+                    return neighbor;
+                }
+                side.queue[side.tail++] = neighbor;
+            }
+        }
+        return NO_PARENT;
+    }
+
+    private static int[] joinPaths(int[] forwardParent, int[] backwardParent, int meeting) {
+        int toStart = 0;
+        for (int cell = meeting; cell != NO_PARENT; cell = forwardParent[cell]) {
+            toStart++;
+        }
+        int toGoal = 0;
+        for (int cell = backwardParent[meeting]; cell != NO_PARENT; cell = backwardParent[cell]) {
+            toGoal++;
+        }
+        int[] path = new int[toStart + toGoal];
+        int i = toStart - 1;
+        for (int cell = meeting; cell != NO_PARENT; cell = forwardParent[cell]) {
+            path[i--] = cell;
+        }
+        i = toStart;
+        for (int cell = backwardParent[meeting]; cell != NO_PARENT; cell = backwardParent[cell]) {
+            path[i++] = cell;
+        }
+        return path;
+    }
+
+    @Override
+    protected ISearchingAlgorithm createFallback() {
+        return new BreadthFirstSearch();
+    }
+}
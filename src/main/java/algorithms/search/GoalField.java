@@ -0,0 +1,132 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+/**
+ * The number of steps from every state to the goal, as one int per state. It is built once
+ * with a reverse BFS from the goal (maze moves are symmetric, so the forward neighbours serve
+ * as predecessors). Afterwards the distance, the best next step and a shortest path from any
+ * state can be read off without searching again: a path costs O(path length).
+ */
+public class GoalField {
+
+    /** Distance of a state that cannot reach the goal. */
+    public static final int UNREACHABLE = -1;
+
+    private final int goal;
+    private final int[] distance;
+
+    private GoalField(int goal, int[] distance) {
+        this.goal = goal;
+        this.distance = distance;
+    }
+
+    /**
+     * Runs the reverse BFS from the domain's goal over all its states.
+     * @throws java.util.concurrent.CancellationException If the thread is interrupted meanwhile.
+     */
+    public static GoalField build(IIndexedSearchable domain) {
+        int stateCount = domain.getStateCount();
+        int goal = domain.getGoalIndex();
+
+        int[] distance = new int[stateCount]; // Also marks discovered states, so no bitset is needed
+        int[] queue = new int[stateCount]; // Each state is enqueued at most once
+        int[] neighbors = new int[IIndexedSearchable.MAX_NEIGHBORS];
+        int head = 0;
+        int tail = 0;
+
+        Arrays.fill(distance, UNREACHABLE);
+        distance[goal] = 0;
+        queue[tail++] = goal;
+
+        while (head < tail) {
+            int current = queue[head++];
+            AIndexedSearchingAlgorithm.checkCancelled(head);
+            int count = domain.getNeighbors(current, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (distance[neighbor] == UNREACHABLE) {
+                    distance[neighbor] = distance[current] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return new GoalField(goal, distance);
+    }
+
+    public int getStateCount() {
+        return distance.length;
+    }
+
+    /**
+     * The memory held by the field, for caches that are bounded in bytes.
+     */
+    public long getByteSize() {
+        return byteSizeOf(distance.length);
+    }
+
+    /**
+     * The memory a field over that many states holds once built; building it takes twice that.
+     */
+    public static long byteSizeOf(int stateCount) {
+        return 4L * stateCount + 16;
+    }
+
+    /**
+     * @return The number of steps from the state to the goal, or UNREACHABLE.
+     */
+    public int getDistance(int state) {
+        return distance[state];
+    }
+
+    /**
+     * One step along a shortest path to the goal.
+     * @param domain The domain the field was built from.
+     * @return The neighbour one step closer to the goal, or UNREACHABLE at the goal or when it cannot be reached.
+     */
+    public int nextStep(IIndexedSearchable domain, int state) {
+        if (state == goal || distance[state] == UNREACHABLE) {
+            return UNREACHABLE;
+        }
+        int[] neighbors = new int[IIndexedSearchable.MAX_NEIGHBORS];
+        int count = domain.getNeighbors(state, neighbors);
+        for (int i = 0; i < count; i++) {
+            if (distance[neighbors[i]] == distance[state] - 1) {
+                return neighbors[i];
+            }
+        }
+        return UNREACHABLE; // Not reached when the domain is the one the field was built from
+    }
+
+    /**
+     * A shortest path from the given state to the goal, both included.
+     * @param domain The domain the field was built from.
+     * @return The state indices in walking order, or an empty array if the goal cannot be reached.
+     */
+    public int[] pathFrom(IIndexedSearchable domain, int state) {
+        if (distance[state] == UNREACHABLE) {
+            return new int[0];
+        }
+        int[] path = new int[distance[state] + 1];
+        int[] neighbors = new int[IIndexedSearchable.MAX_NEIGHBORS];
+        path[0] = state;
+        for (int i = 1; i < path.length; i++) {
+            int count = domain.getNeighbors(path[i - 1], neighbors);
+            for (int j = 0; j < count; j++) {
+                if (distance[neighbors[j]] == path.length - 1 - i) {
+                    path[i] = neighbors[j];
+                    break;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * The same path as pathFrom, as a Solution of the domain's states.
+     */
+    public Solution solutionFrom(IIndexedSearchable domain, int state) {
+        int[] path = pathFrom(domain, state);
+        return path.length == 0 ? new Solution(null) : AIndexedSearchingAlgorithm.buildSolution(domain, path);
+    }
+}
@@ -0,0 +1,35 @@
+package algorithms.search;
+
+/**
+ * A searchable problem whose states are plain int indices, so a searcher can
+ * expand nodes without allocating state objects or neighbor lists.
+ */
+public interface IIndexedSearchable extends ISearchable {
+
+    /** The largest number of neighbors getNeighbors can write. */
+    int MAX_NEIGHBORS = 8;
+
+    int getStateCount();
+
+    int getStartIndex();
+
+    int getGoalIndex();
+
+    /**
+     * Writes the indices of the states reachable from the given state.
+     * @param state The state index.
+     * @param neighbors Output buffer of at least MAX_NEIGHBORS entries.
+     * @return The number of neighbors written.
+     */
+    int getNeighbors(int state, int[] neighbors);
+
+    /**
+     * An admissible estimate of the number of steps between two states.
+     */
+    int estimate(int from, int to);
+
+    /**
+     * Turns an index back into a state object, used only when building a Solution.
+     */
+    AState getState(int state);
+}
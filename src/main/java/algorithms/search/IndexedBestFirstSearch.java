@@ -0,0 +1,64 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+/**
+ * A* over int state indices. Uses an IntMinHeap as the open list, a long[]
+ * bitset as the closed set and int[] arrays for distances and parents, so
+ * expanding a node allocates nothing. Every move costs 1, so the path found
+ * is the shortest in steps.
+ */
+public class IndexedBestFirstSearch extends AIndexedSearchingAlgorithm {
+
+    @Override
+    public String getName() {
+        return "Indexed Best First Search";
+    }
+
+    @Override
+    protected Solution solve(IIndexedSearchable domain) {
+        int stateCount = domain.getStateCount();
+        int start = domain.getStartIndex();
+        int goal = domain.getGoalIndex();
+
+        int[] distance = new int[stateCount];
+        int[] parent = new int[stateCount];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        long[] closed = newBitSet(stateCount);
+        int[] neighbors = new int[IIndexedSearchable.MAX_NEIGHBORS];
+        IntMinHeap open = new IntMinHeap(1024);
+
+        distance[start] = 0;
+        parent[start] = NO_PARENT;
+        open.push(start, domain.estimate(start, goal));
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            if (isSet(closed, current)) {
+                continue; // Stale entry, a shorter one was already expanded
+            }
+            set(closed, current);
+            checkCancelled(++visitedNodes);
+            if (current == goal) {
+                return buildSolution(domain, parent, goal);
+            }
+
+            int nextDistance = distance[current] + 1;
+            int count = domain.getNeighbors(current, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (nextDistance < distance[neighbor] && !isSet(closed, neighbor)) {
+                    distance[neighbor] = nextDistance;
+                    parent[neighbor] = current;
+                    open.push(neighbor, nextDistance + domain.estimate(neighbor, goal));
+                }
+            }
+        }
+        return buildSolution(domain, parent, NO_PARENT);
+    }
+
+    @Override
+    protected ISearchingAlgorithm createFallback() {
+        return new BestFirstSearch();
+    }
+}
@@ -0,0 +1,54 @@
+package algorithms.search;
+
+/**
+ * Breadth-first search over int state indices, using an int[] ring of the
+ * frontier, a long[] bitset of discovered states and an int[] parent array.
+ */
+public class IndexedBreadthFirstSearch extends AIndexedSearchingAlgorithm {
+
+    @Override
+    public String getName() {
+        return "Indexed Breadth First Search";
+    }
+
+    @Override
+    protected Solution solve(IIndexedSearchable domain) {
+        int stateCount = domain.getStateCount();
+        int start = domain.getStartIndex();
+        int goal = domain.getGoalIndex();
+
+        int[] parent = new int[stateCount];
+        int[] queue = new int[stateCount]; // Each state is enqueued at most once
+        long[] discovered = newBitSet(stateCount);
+        int[] neighbors = new int[IIndexedSearchable.MAX_NEIGHBORS];
+        int head = 0;
+        int tail = 0;
+
+        parent[start] = NO_PARENT;
+        set(discovered, start);
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int current = queue[head++];
+            checkCancelled(++visitedNodes);
+            if (current == goal) {
+                return buildSolution(domain, parent, goal);
+            }
+            int count = domain.getNeighbors(current, neighbors);
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (!isSet(discovered, neighbor)) {
+                    set(discovered, neighbor);
+                    parent[neighbor] = current;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return buildSolution(domain, parent, NO_PARENT);
+    }
+
+    @Override
+    protected ISearchingAlgorithm createFallback() {
+        return new BreadthFirstSearch();
+    }
+}
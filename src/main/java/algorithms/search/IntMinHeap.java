@@ -0,0 +1,84 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int values ordered by int priorities, kept in two parallel
+ * arrays so that push/pop never allocate (apart from growing the arrays).
+ * There is no decrease-key: push the value again and skip stale entries on pop.
+ */
+class IntMinHeap {
+
+    private int[] values;
+    private int[] priorities;
+    private int size;
+
+    IntMinHeap(int initialCapacity) {
+        values = new int[Math.max(16, initialCapacity)];
+        priorities = new int[values.length];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void push(int value, int priority) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            values[i] = values[parent];
+            priorities[i] = priorities[parent];
+            i = parent;
+        }
+        values[i] = value;
+        priorities[i] = priority;
+    }
+
+    int peekPriority() {
+        return priorities[0];
+    }
+
+    /**
+     * Removes and returns the value with the lowest priority.
+     */
+    int pop() {
+        int top = values[0];
+        size--;
+        if (size > 0) {
+            int value = values[size];
+            int priority = priorities[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if (priority <= priorities[child]) {
+                    break;
+                }
+                values[i] = values[child];
+                priorities[i] = priorities[child];
+                i = child;
+            }
+            values[i] = value;
+            priorities[i] = priority;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,172 @@
+package algorithms.search;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level-synchronous parallel breadth-first search over int state indices.
+ * Each frontier is split across a ForkJoinPool; workers claim newly discovered
+ * states with a CAS on a shared AtomicLongArray bitmap, so every state gets
+ * exactly one parent. Problems smaller than the threshold are solved by the
+ * sequential IndexedBreadthFirstSearch, where the fork/join overhead is not worth it.
+ * Cancellation is checked between levels, on the thread that called solve.
+ */
+public class ParallelBreadthFirstSearch extends AIndexedSearchingAlgorithm {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1_000_000;
+    private static final int GRAIN = 2048; // Frontier states handled by one leaf task
+
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+
+    public ParallelBreadthFirstSearch() {
+        this(DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public ParallelBreadthFirstSearch(int parallelThreshold) {
+        this(parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBreadthFirstSearch(int parallelThreshold, ForkJoinPool pool) {
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return "Parallel Breadth First Search";
+    }
+
+    @Override
+    protected Solution solve(IIndexedSearchable domain) {
+        int stateCount = domain.getStateCount();
+        if (stateCount < parallelThreshold) {
+            IndexedBreadthFirstSearch sequential = new IndexedBreadthFirstSearch();
+            Solution solution = sequential.solve(domain);
+            visitedNodes = sequential.getNumberOfNodesEvaluated();
+            return solution;
+        }
+
+        int start = domain.getStartIndex();
+        int goal = domain.getGoalIndex();
+        int[] parent = new int[stateCount];
+        AtomicLongArray discovered = new AtomicLongArray((stateCount + 63) >>> 6);
+
+        parent[start] = NO_PARENT;
+        claim(discovered, start);
+        int[] frontier = {start};
+        int frontierSize = 1;
+
+        while (frontierSize > 0) {
+            if (Thread.currentThread().isInterrupted()) { // Once per level; the workers do not see this thread's interrupt
+                throw new CancellationException("Search interrupted after " + visitedNodes + " states");
+            }
+            visitedNodes += frontierSize;
+            if (isClaimed(discovered, goal)) {
+                return buildSolution(domain, parent, goal);
+            }
+            int chunks = (frontierSize + GRAIN - 1) / GRAIN;
+            int[][] discoveredByChunk = new int[chunks][];
+            int[] discoveredCounts = new int[chunks];
+            ExpandTask expand = new ExpandTask(domain, frontier, 0, frontierSize, parent, discovered, discoveredByChunk, discoveredCounts);
+            if (chunks == 1) {
+                expand.compute(); // Corridor-heavy mazes have tiny frontiers; a pool round trip per level would dominate
+            } else {
+                pool.invoke(expand);
+            }
+
+            int nextSize = 0;
+            for (int count : discoveredCounts) {
+                nextSize += count;
+            }
+            int[] next = new int[nextSize];
+            int offset = 0;
+            for (int i = 0; i < chunks; i++) {
+                System.arraycopy(discoveredByChunk[i], 0, next, offset, discoveredCounts[i]);
+                offset += discoveredCounts[i];
+            }
+            frontier = next;
+            frontierSize = nextSize;
+        }
+        return buildSolution(domain, parent, NO_PARENT);
+    }
+
+    private static boolean claim(AtomicLongArray bits, int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & bit) != 0) {
+                return false; // Another worker got there first
+            }
+        } while (!bits.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    private static boolean isClaimed(AtomicLongArray bits, int index) {
+        return (bits.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    // Expands frontier[from, to), splitting until a range fits in one GRAIN
+    private static class ExpandTask extends RecursiveAction {
+        private final IIndexedSearchable domain;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private final int[] parent;
+        private final AtomicLongArray discovered;
+        private final int[][] discoveredByChunk;
+        private final int[] discoveredCounts;
+
+        ExpandTask(IIndexedSearchable domain, int[] frontier, int from, int to, int[] parent,
+                   AtomicLongArray discovered, int[][] discoveredByChunk, int[] discoveredCounts) {
+            this.domain = domain;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.parent = parent;
+            this.discovered = discovered;
+            this.discoveredByChunk = discoveredByChunk;
+            this.discoveredCounts = discoveredCounts;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int chunks = (to - from + GRAIN - 1) / GRAIN;
+                int middle = from + (chunks / 2) * GRAIN; // Keep splits on chunk boundaries
+                invokeAll(new ExpandTask(domain, frontier, from, middle, parent, discovered, discoveredByChunk, discoveredCounts),
+                        new ExpandTask(domain, frontier, middle, to, parent, discovered, discoveredByChunk, discoveredCounts));
+                return;
+            }
+            int[] neighbors = new int[IIndexedSearchable.MAX_NEIGHBORS];
+            int[] found = new int[(to - from) * 2];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int current = frontier[i];
+                int neighborCount = domain.getNeighbors(current, neighbors);
+                for (int j = 0; j < neighborCount; j++) {
+                    int neighbor = neighbors[j];
+                    if (claim(discovered, neighbor)) {
+                        parent[neighbor] = current; // Only the claiming worker writes this entry
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = neighbor;
+                    }
+                }
+            }
+            discoveredByChunk[from / GRAIN] = found;
+            discoveredCounts[from / GRAIN] = count;
+        }
+    }
+
+    @Override
+    protected ISearchingAlgorithm createFallback() {
+        return new BreadthFirstSearch();
+    }
+}
@@ -0,0 +1,123 @@
+package algorithms.search;
+
+import algorithms.mazeGenerators.BitPackedMaze;
+import algorithms.mazeGenerators.Maze;
+import algorithms.mazeGenerators.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A maze as an IIndexedSearchable: each cell is the index row * columns + col.
+ * Moves are the same as in SearchableMaze: the four sides, plus a diagonal when
+ * both sides next to it are open. Also usable as a plain ISearchable.
+ */
+public class SearchableIndexedMaze implements IIndexedSearchable {
+
+    private final BitPackedMaze maze;
+    private final int rows;
+    private final int columns;
+
+    public SearchableIndexedMaze(Maze maze) {
+        this.maze = BitPackedMaze.of(maze);
+        this.rows = maze.getRows();
+        this.columns = maze.getColumns();
+    }
+
+    public BitPackedMaze getMaze() {
+        return maze;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int indexOf(int row, int col) {
+        return row * columns + col;
+    }
+
+    @Override
+    public int getStateCount() {
+        return rows * columns;
+    }
+
+    @Override
+    public int getStartIndex() {
+        return indexOf(maze.getStartPosition().getRowIndex(), maze.getStartPosition().getColumnIndex());
+    }
+
+    @Override
+    public int getGoalIndex() {
+        return indexOf(maze.getGoalPosition().getRowIndex(), maze.getGoalPosition().getColumnIndex());
+    }
+
+    @Override
+    public int getNeighbors(int state, int[] neighbors) {
+        int row = state / columns;
+        int col = state % columns;
+        if (!isWalkable(row, col)) {
+            return 0;
+        }
+        int count = 0;
+        boolean up = isWalkable(row - 1, col);
+        boolean down = isWalkable(row + 1, col);
+        boolean left = isWalkable(row, col - 1);
+        boolean right = isWalkable(row, col + 1);
+        if (up) neighbors[count++] = state - columns;
+        if (down) neighbors[count++] = state + columns;
+        if (left) neighbors[count++] = state - 1;
+        if (right) neighbors[count++] = state + 1;
+        // Diagonals only when both sides are open, so no corner is cut
+        if (up && left && isWalkable(row - 1, col - 1)) neighbors[count++] = state - columns - 1;
+        if (up && right && isWalkable(row - 1, col + 1)) neighbors[count++] = state - columns + 1;
+        if (down && left && isWalkable(row + 1, col - 1)) neighbors[count++] = state + columns - 1;
+        if (down && right && isWalkable(row + 1, col + 1)) neighbors[count++] = state + columns + 1;
+        return count;
+    }
+
+    @Override
+    public int estimate(int from, int to) {
+        // Chebyshev distance: a diagonal step costs the same as a straight one
+        return Math.max(Math.abs(from / columns - to / columns), Math.abs(from % columns - to % columns));
+    }
+
+    @Override
+    public AState getState(int state) {
+        return new MazeState(new Position(state / columns, state % columns));
+    }
+
+    @Override
+    public AState getStartState() {
+        return getState(getStartIndex());
+    }
+
+    @Override
+    public AState getGoalState() {
+        return getState(getGoalIndex());
+    }
+
+    @Override
+    public List<AState> getAllPossibleStates(AState state) {
+        if (Thread.currentThread().isInterrupted()) {
+            // The object-based searchers have no check of their own; this is called once per state they expand
+            throw new CancellationException("Search interrupted");
+        }
+        Position position = ((MazeState) state).getPosition();
+        int[] neighbors = new int[MAX_NEIGHBORS];
+        int count = getNeighbors(indexOf(position.getRowIndex(), position.getColumnIndex()), neighbors);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<AState> states = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            states.add(getState(neighbors[i]));
+        }
+        return states;
+    }
+
+    private boolean isWalkable(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < columns && !maze.isWall(row, col);
+    }
+}